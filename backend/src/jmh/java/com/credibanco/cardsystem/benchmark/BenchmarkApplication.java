@@ -0,0 +1,69 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.CardsApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arranca el contexto de la aplicación sobre un H2 en memoria, con el registro de SQL y el de
+ * depuración apagados para que no distorsionen las mediciones.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return run(WebApplicationType.NONE, extraArgs);
+    }
+
+    /**
+     * Igual que {@link #start(String...)} pero con Tomcat escuchando en un puerto libre.
+     */
+    public static ConfigurableApplicationContext startWeb(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return run(WebApplicationType.SERVLET, args.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--app.pan-hash.key=benchmark-pan-hash-key",
+                "--app.reference.node-id=0",
+                // Cada contexto parte de un esquema vacío; las entidades declaran los mismos índices que las migraciones
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.credibanco.cardsystem=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                // Los benchmarks repiten compras sobre pocas tarjetas; con límites medirían el rechazo
+                "--app.velocity-limits.enabled=false"));
+        args.addAll(List.of(extraArgs));
+
+        // Un argumento repetido se uniría con comas: el último reemplaza a los valores por defecto
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            byKey.put(separator > 0 ? arg.substring(0, separator) : arg, arg);
+        }
+
+        return new SpringApplicationBuilder(CardsApplication.class)
+                .web(type)
+                .run(byKey.values().toArray(String[]::new));
+    }
+}
@@ -0,0 +1,76 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.service.SyntheticDataGenerator;
+import com.credibanco.cardsystem.service.TransactionService;
+import com.credibanco.cardsystem.util.PageCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * Página de 50 filas del historial de una tarjeta con {@code history} transacciones: la primera y una a mitad
+ * del historial. Con el índice {@code (card_id, created_at)} ambas deben costar lo mismo.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark verify -Djmh.include=CardHistoryBenchmark -Djmh.modes=sample -Djmh.timeUnit=ms
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Warmup(time = 3)
+@Measurement(time = 3)
+public class CardHistoryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"100000"})
+    public int history;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String identifier;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transactionService = context.getBean(TransactionService.class);
+        // Una sola tarjeta: todas las transacciones generadas son suyas
+        context.getBean(SyntheticDataGenerator.class).generate(1, history);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Map<String, Object> card = jdbcTemplate.queryForMap("select id, identifier from cards");
+        identifier = (String) card.get("IDENTIFIER");
+        Map<String, Object> middle = jdbcTemplate.queryForMap("select created_at, id from transactions where card_id = ? "
+                + "order by created_at desc, id desc offset " + history / 2 + " rows fetch next 1 row only", card.get("ID"));
+        middleCursor = new PageCursor(((Timestamp) middle.get("CREATED_AT")).toLocalDateTime(),
+                ((Number) middle.get("ID")).longValue()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<CreateTransactionResponse> firstPage() {
+        return transactionService.getCardTransactions(identifier, null, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<CreateTransactionResponse> deepPage() {
+        return transactionService.getCardTransactions(identifier, null, null, null, middleCursor, PAGE_SIZE);
+    }
+}
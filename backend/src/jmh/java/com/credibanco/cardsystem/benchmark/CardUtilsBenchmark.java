@@ -0,0 +1,37 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.util.CardUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@Warmup(time = 2)
+@Measurement(time = 2)
+public class CardUtilsBenchmark {
+
+    private final String pan = "4111111111111111";
+    private final String documentNumber = "1032456789";
+
+    @Benchmark
+    public String generateIdentifier() {
+        return CardUtils.generateIdentifier(pan, documentNumber);
+    }
+
+    @Benchmark
+    public String maskPan() {
+        return CardUtils.maskPan(pan);
+    }
+
+    @Benchmark
+    public String generateReferenceNumber() {
+        return CardUtils.generateReferenceNumber();
+    }
+
+    @Benchmark
+    public String generateValidationNumber() {
+        return CardUtils.generateValidationNumber();
+    }
+}
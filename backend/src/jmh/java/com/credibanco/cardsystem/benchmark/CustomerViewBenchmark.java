@@ -0,0 +1,61 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.dto.CustomerViewResponse;
+import com.credibanco.cardsystem.service.CustomerService;
+import com.credibanco.cardsystem.service.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Vista de un cliente con {@code customerCards} tarjetas, entre {@code datasetCards} tarjetas sintéticas de
+ * 20 compras cada una repartidas de forma uniforme.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark verify -Djmh.include=CustomerViewBenchmark -Djmh.modes=sample -Djmh.timeUnit=ms
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Warmup(time = 3)
+@Measurement(time = 3)
+public class CustomerViewBenchmark {
+
+    private static final String CUSTOMER = "CUST-BENCHMARK";
+
+    @Param({"48"})
+    public int customerCards;
+
+    @Param({"10000"})
+    public long datasetCards;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--app.synthetic-data.hot-transaction-ratio=0");
+        customerService = context.getBean(CustomerService.class);
+        context.getBean(SyntheticDataGenerator.class).generate(datasetCards, 20);
+        // Las tarjetas generadas tienen un documento cada una: las primeras pasan a ser del mismo cliente
+        context.getBean(JdbcTemplate.class).update("update cards set document_number = ? where id in "
+                + "(select id from cards order by id fetch first " + customerCards + " rows only)", CUSTOMER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerViewResponse getCustomer() {
+        return customerService.getCustomer(CUSTOMER);
+    }
+}
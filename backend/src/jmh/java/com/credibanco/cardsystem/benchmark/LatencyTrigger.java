@@ -0,0 +1,26 @@
+package com.credibanco.cardsystem.benchmark;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+
+/**
+ * Trigger de H2 que retiene la conexión unos milisegundos por fila insertada para simular la latencia
+ * de red y disco de MySQL, que es donde los hilos de las peticiones pasan la mayor parte del tiempo.
+ */
+public class LatencyTrigger implements Trigger {
+
+    static volatile long latencyMillis;
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws java.sql.SQLException {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
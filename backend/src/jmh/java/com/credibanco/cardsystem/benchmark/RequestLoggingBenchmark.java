@@ -0,0 +1,124 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.service.CardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code POST /transactions} con el registro por defecto de {@code application.yml} (SQL formateado,
+ * parámetros en TRACE y trazas INFO por llamada en los controladores) frente al perfil {@code perf}
+ * (consola asíncrona, sin SQL y una línea por petición muestreada). La salida del modo {@code verbose}
+ * es muy voluminosa: conviene redirigirla a un archivo.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark verify -Djmh.include=RequestLoggingBenchmark -Djmh.modes=thrpt -Djmh.timeUnit=s > target/logging-benchmark.txt
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class RequestLoggingBenchmark {
+
+    private static final int CARDS = 64;
+
+    @Param({"verbose", "perf"})
+    public String logging;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI endpoint;
+    private List<String> bodies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("perf".equals(logging)) {
+            context = BenchmarkApplication.startWeb(
+                    "--spring.profiles.active=benchmark,perf",
+                    "--logging.level.root=INFO",
+                    "--logging.level.com.credibanco.cardsystem=INFO",
+                    "--logging.level.com.credibanco.cardsystem.service=WARN");
+        } else {
+            context = BenchmarkApplication.startWeb(
+                    "--spring.jpa.show-sql=true",
+                    "--spring.jpa.properties.hibernate.format_sql=true",
+                    "--logging.level.root=INFO",
+                    "--logging.level.com.credibanco.cardsystem=DEBUG",
+                    "--logging.level.org.hibernate.SQL=DEBUG",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=TRACE",
+                    "--logging.level.org.springframework.web=DEBUG");
+        }
+
+        CardService cardService = context.getBean(CardService.class);
+        bodies = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            CreateCardResponse card = cardService.createCard(CreateCardRequest.builder()
+                    .pan(String.format("7%015d", i))
+                    .holderName("Logging Holder")
+                    .documentNumber("LG" + i)
+                    .cardType(CardType.DEBIT)
+                    .phoneNumber("+573001234567")
+                    .build());
+            cardService.enrollCard(EnrollCardRequest.builder()
+                    .identifier(card.getIdentifier())
+                    .validationNumber(card.getValidationNumber())
+                    .build());
+            bodies.add("{\"cardIdentifier\":\"" + card.getIdentifier()
+                    + "\",\"totalAmount\":25.00,\"purchaseAddress\":\"Logging Store\"}");
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        endpoint = URI.create("http://localhost:" + port + "/transactions");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int createTransaction() throws IOException, InterruptedException {
+        String body = bodies.get(Math.floorMod(next.getAndIncrement(), CARDS));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(endpoint)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
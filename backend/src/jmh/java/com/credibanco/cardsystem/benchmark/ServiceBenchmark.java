@@ -0,0 +1,92 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.service.CardService;
+import com.credibanco.cardsystem.service.SyntheticDataGenerator;
+import com.credibanco.cardsystem.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alta de tarjetas y compras a través de los servicios. Con {@code -p datasetCards=N} la base parte con N
+ * tarjetas sintéticas y 10 compras por tarjeta, para medir sobre tablas e índices de tamaño realista.
+ */
+@State(Scope.Benchmark)
+@Warmup(time = 3)
+@Measurement(time = 3)
+public class ServiceBenchmark {
+
+    @Param({"0"})
+    public long datasetCards;
+
+    private final AtomicLong panSequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private TransactionService transactionService;
+    private CreateTransactionRequest transactionRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        if (datasetCards > 0) {
+            context.getBean(SyntheticDataGenerator.class).generate(datasetCards, 10);
+        }
+        cardService = context.getBean(CardService.class);
+        transactionService = context.getBean(TransactionService.class);
+
+        CreateCardResponse card = cardService.createCard(nextCardRequest());
+        cardService.enrollCard(EnrollCardRequest.builder()
+                .identifier(card.getIdentifier())
+                .validationNumber(card.getValidationNumber())
+                .build());
+
+        transactionRequest = CreateTransactionRequest.builder()
+                .cardIdentifier(card.getIdentifier())
+                .totalAmount(new BigDecimal("125.50"))
+                .purchaseAddress("Centro Comercial Andino, Bogotá")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CreateCardResponse createCard() {
+        return cardService.createCard(nextCardRequest());
+    }
+
+    @Benchmark
+    public CreateTransactionResponse createTransaction() {
+        return transactionService.createTransaction(transactionRequest);
+    }
+
+    private CreateCardRequest nextCardRequest() {
+        long sequence = panSequence.incrementAndGet();
+        return CreateCardRequest.builder()
+                .pan(String.format("5%015d", sequence))
+                .holderName("Benchmark Holder")
+                .documentNumber("BM" + sequence)
+                .cardType(CardType.CREDIT)
+                .phoneNumber("+573001234567")
+                .build();
+    }
+}
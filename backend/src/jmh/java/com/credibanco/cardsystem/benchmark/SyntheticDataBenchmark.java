@@ -0,0 +1,58 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.service.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Tiempo de carga de {@link SyntheticDataGenerator} sobre el H2 en memoria: cada invocación escribe
+ * {@code cards} tarjetas y {@code cards * transactionsPerCard} transacciones. Para volúmenes de 10M+
+ * filas conviene apuntar a MySQL o ampliar el heap del fork, porque H2 en memoria guarda todo en el heap.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark verify -Djmh.include=SyntheticDataBenchmark -Djmh.modes=ss -Djmh.timeUnit=s -Djmh.warmupIterations=0 -Djmh.iterations=1
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+public class SyntheticDataBenchmark {
+
+    @Param({"100000"})
+    public long cards;
+
+    @Param({"10"})
+    public int transactionsPerCard;
+
+    @Param({"4"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private SyntheticDataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--app.synthetic-data.parallelism=" + parallelism,
+                "--spring.datasource.hikari.maximum-pool-size=" + (parallelism + 2),
+                "--app.pan-hash.expected-cards=" + cards * 2);
+        generator = context.getBean(SyntheticDataGenerator.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SyntheticDataGenerator.Result generate() {
+        return generator.generate(cards, transactionsPerCard);
+    }
+}
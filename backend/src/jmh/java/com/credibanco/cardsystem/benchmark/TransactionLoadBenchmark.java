@@ -0,0 +1,135 @@
+package com.credibanco.cardsystem.benchmark;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.service.CardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carga concurrente sobre {@code POST /transactions} con hilos de plataforma frente a hilos virtuales.
+ * Cada inserción en {@code transactions} espera {@code dbLatencyMillis} dentro de la conexión, de modo
+ * que el cuello de botella sea la espera de I/O y no la CPU. Se reparte la carga entre varias tarjetas
+ * para que el cerrojo por tarjeta no serialice la prueba.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark verify -Djmh.include=TransactionLoadBenchmark -Djmh.modes=thrpt,sample -Djmh.timeUnit=ms
+ * </pre>
+ *
+ * El modo {@code virtual} requiere ejecutar el benchmark con Java 21+; en versiones anteriores falla
+ * al iniciar en lugar de medir hilos de plataforma con otra etiqueta.
+ */
+@State(Scope.Benchmark)
+@Threads(512)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class TransactionLoadBenchmark {
+
+    private static final int CARDS = 64;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"20"})
+    public long dbLatencyMillis;
+
+    @Param({"100"})
+    public int poolSize;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI endpoint;
+    private List<String> bodies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require Java 21+, running on " + Runtime.version());
+        }
+
+        context = BenchmarkApplication.startWeb(
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=30000",
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000");
+
+        context.getBean(JdbcTemplate.class).execute("CREATE TRIGGER IF NOT EXISTS load_latency BEFORE INSERT ON transactions "
+                + "FOR EACH ROW CALL '" + LatencyTrigger.class.getName() + "'");
+        LatencyTrigger.latencyMillis = dbLatencyMillis;
+
+        CardService cardService = context.getBean(CardService.class);
+        bodies = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            CreateCardResponse card = cardService.createCard(CreateCardRequest.builder()
+                    .pan(String.format("6%015d", i))
+                    .holderName("Load Holder")
+                    .documentNumber("LD" + i)
+                    .cardType(CardType.DEBIT)
+                    .phoneNumber("+573001234567")
+                    .build());
+            cardService.enrollCard(EnrollCardRequest.builder()
+                    .identifier(card.getIdentifier())
+                    .validationNumber(card.getValidationNumber())
+                    .build());
+            bodies.add("{\"cardIdentifier\":\"" + card.getIdentifier()
+                    + "\",\"totalAmount\":25.00,\"purchaseAddress\":\"Load Test Store\"}");
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        endpoint = URI.create("http://localhost:" + port + "/transactions");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LatencyTrigger.latencyMillis = 0;
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int createTransaction() throws IOException, InterruptedException {
+        String body = bodies.get(Math.floorMod(next.getAndIncrement(), CARDS));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(endpoint)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
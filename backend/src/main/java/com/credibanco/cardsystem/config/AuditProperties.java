@@ -0,0 +1,30 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    /**
+     * SYNC: inserta dentro de la transacción de negocio.
+     * AFTER_COMMIT: encola al confirmar la transacción; si la cola está llena escribe en línea.
+     * FIRE_AND_FORGET: encola al confirmar la transacción y descarta si la cola está llena.
+     */
+    public enum Mode {
+        SYNC,
+        AFTER_COMMIT,
+        FIRE_AND_FORGET
+    }
+
+    private Mode mode = Mode.AFTER_COMMIT;
+    private int queueCapacity = 10_000;
+    private int batchSize = 200;
+    private Duration flushInterval = Duration.ofMillis(200);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,15 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.cancellation-index")
+public class CancellationIndexProperties {
+
+    private boolean enabled = true;
+    // Sólo con una instancia o afinidad por tarjeta: si no, la referencia puede estar en el índice de otra
+    private boolean authoritative = false;
+}
@@ -0,0 +1,15 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.card-import")
+public class CardImportProperties {
+
+    private int chunkSize = 1000;
+    private int hashParallelism = Runtime.getRuntime().availableProcessors();
+    private int maxReportedRejects = 100;
+}
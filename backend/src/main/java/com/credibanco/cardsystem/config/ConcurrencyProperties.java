@@ -0,0 +1,18 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.concurrency")
+public class ConcurrencyProperties {
+
+    private int stripes = 1024;
+    private Duration lockTimeout = Duration.ofSeconds(5);
+    private int maxAttempts = 3;
+    private Duration retryBackoff = Duration.ofMillis(10);
+}
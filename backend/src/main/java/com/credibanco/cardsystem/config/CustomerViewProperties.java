@@ -0,0 +1,18 @@
+package com.credibanco.cardsystem.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "app.customer-view")
+public class CustomerViewProperties {
+
+    // Transacciones más recientes incluidas por tarjeta en GET /customers/{documentNumber}
+    @Min(1)
+    private int recentTransactions = 5;
+}
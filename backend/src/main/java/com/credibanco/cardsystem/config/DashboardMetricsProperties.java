@@ -0,0 +1,16 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.dashboard-metrics")
+public class DashboardMetricsProperties {
+
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+    private int reconcileAttempts = 3;
+}
@@ -0,0 +1,24 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+    // Respuestas ya completadas en memoria; las claves en curso no cuentan ni se desalojan
+    private long maxEntries = 100_000;
+    // Vigencia de una clave, en memoria y en la tabla idempotency_keys
+    private Duration ttl = Duration.ofHours(24);
+    // Espera máxima de un duplicado concurrente a que termine la petición original
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    // Cada cuánto consulta la fila un duplicado cuya original corre en otra instancia
+    private Duration inFlightPollInterval = Duration.ofMillis(100);
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,14 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.PanHasher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PanHashConfig {
+
+    @Bean
+    public PanHasher panHasher(PanHashProperties properties) {
+        return new PanHasher(properties.getKey());
+    }
+}
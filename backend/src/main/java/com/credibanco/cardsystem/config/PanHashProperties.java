@@ -0,0 +1,17 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.pan-hash")
+public class PanHashProperties {
+
+    // Clave del HMAC de cards.pan_hash; cambiarla exige recalcular la columna
+    private String key;
+    // Dimensionamiento del filtro de PAN existentes
+    private long expectedCards = 1_000_000;
+    private double falsePositiveRate = 0.01;
+}
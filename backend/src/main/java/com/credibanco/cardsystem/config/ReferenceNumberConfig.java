@@ -0,0 +1,24 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.ReferenceNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class ReferenceNumberConfig {
+
+    // Cada instancia del backend debe tener un id de nodo distinto (0-1023); sin él no arranca, porque un
+    // valor por defecto compartido repetiría números de referencia entre instancias
+    @Bean
+    public ReferenceNumberGenerator referenceNumberGenerator(
+            @Value("${app.reference.node-id:#{null}}") Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalArgumentException("Node id is required: set NODE_ID to a value unique per instance");
+        }
+        log.info("Generador de números de referencia configurado para el nodo {}", nodeId);
+        return new ReferenceNumberGenerator(nodeId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.credibanco.cardsystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Una línea {@code clave=valor} al terminar cada petición, en lugar de las trazas por llamada de los
+ * controladores (que quedan en DEBUG). Las exitosas se muestrean con {@code app.request-logging.success-sample-rate};
+ * las que terminan con error (status >= 400 o excepción) se registran siempre en WARN.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.request-logging", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RequestLoggingConfig {
+
+    @Bean
+    public RequestCompletionFilter requestCompletionFilter(RequestLoggingProperties properties) {
+        return new RequestCompletionFilter(properties.getSuccessSampleRate());
+    }
+
+    public static class RequestCompletionFilter extends OncePerRequestFilter {
+
+        private final double successSampleRate;
+
+        public RequestCompletionFilter(double successSampleRate) {
+            this.successSampleRate = successSampleRate;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            long startedAt = System.nanoTime();
+            boolean failed = true;
+            try {
+                chain.doFilter(request, response);
+                failed = response.getStatus() >= 400;
+            } finally {
+                if (failed) {
+                    log.warn(line(request, response, startedAt));
+                } else if (log.isInfoEnabled() && sampled()) {
+                    log.info(line(request, response, startedAt));
+                }
+            }
+        }
+
+        private boolean sampled() {
+            return successSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+        }
+
+        private static String line(HttpServletRequest request, HttpServletResponse response, long startedAt) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return String.format(Locale.ROOT, "Request completed: method=%s uri=%s status=%d durationMs=%.2f",
+                    request.getMethod(), pattern != null ? pattern : request.getRequestURI(), response.getStatus(),
+                    (System.nanoTime() - startedAt) / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.request-logging")
+public class RequestLoggingProperties {
+
+    private boolean enabled = true;
+    // Fracción de peticiones exitosas (< 400) que se registran; las fallidas se registran siempre
+    private double successSampleRate = 1.0;
+}
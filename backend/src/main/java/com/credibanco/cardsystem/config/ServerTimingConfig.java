@@ -0,0 +1,228 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.RequestTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Type;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Desglose del tiempo de una petición por capa (controlador, servicio, repositorios de tarjetas y
+ * transacciones, auditoría y serialización JSON). Las capas se anidan: el controlador incluye al servicio
+ * y éste a los repositorios. Sólo se mide una fracción {@code app.server-timing.sample-rate} de las
+ * peticiones; el resultado se envía en la cabecera {@code Server-Timing} y en una línea de log.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ServerTimingConfig {
+
+    static final String HEADER = "Server-Timing";
+
+    @Bean
+    public ServerTimingFilter serverTimingFilter(ServerTimingProperties properties) {
+        return new ServerTimingFilter(properties.getSampleRate());
+    }
+
+    @Bean
+    public LayerTimingAspect layerTimingAspect() {
+        return new LayerTimingAspect();
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonHttpMessageConverter(objectMapper);
+    }
+
+    public static class ServerTimingFilter extends OncePerRequestFilter {
+
+        private final double sampleRate;
+
+        public ServerTimingFilter(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            RequestTimings timings = RequestTimings.start();
+            TimingResponse timingResponse = new TimingResponse(response, timings);
+            try {
+                chain.doFilter(request, timingResponse);
+            } finally {
+                RequestTimings.clear();
+                // Respuestas sin cuerpo: la cabecera aún no se escribió
+                timingResponse.writeHeader();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.info("Server timing: method={} uri={} status={} {}", request.getMethod(),
+                        pattern != null ? pattern : request.getRequestURI(), response.getStatus(), timings.toLogFields());
+            }
+        }
+    }
+
+    /**
+     * Añade {@code Server-Timing} justo antes de que se confirme la respuesta, con lo medido hasta ese momento.
+     */
+    static class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                setHeader(HEADER, timings.toHeader());
+            }
+            written = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+
+    @Aspect
+    public static class LayerTimingAspect {
+
+        @Around("within(com.credibanco.cardsystem.controller..*)")
+        public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+            return time("controller", joinPoint);
+        }
+
+        @Around("execution(public * com.credibanco.cardsystem.service.CardService.*(..))"
+                + " || execution(public * com.credibanco.cardsystem.service.TransactionService.*(..))")
+        public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+            return time("service", joinPoint);
+        }
+
+        @Around("target(com.credibanco.cardsystem.repository.CardRepository)")
+        public Object cardRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+            return time("card-db", joinPoint);
+        }
+
+        @Around("target(com.credibanco.cardsystem.repository.TransactionRepository)")
+        public Object transactionRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+            return time("transaction-db", joinPoint);
+        }
+
+        @Around("execution(public * com.credibanco.cardsystem.service.AuditService.*(..))")
+        public Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
+            return time("audit", joinPoint);
+        }
+
+        private static Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+            RequestTimings timings = RequestTimings.current();
+            if (timings == null) {
+                return joinPoint.proceed();
+            }
+            long enteredAt = timings.enter(layer);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                timings.exit(layer, enteredAt);
+            }
+        }
+    }
+
+    /**
+     * En peticiones muestreadas serializa a memoria para medir el JSON por separado y poder incluirlo en
+     * la cabecera, que se envía al pedir el cuerpo; las demás escriben directamente en la respuesta.
+     */
+    static class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            RequestTimings timings = RequestTimings.current();
+            if (timings == null) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+            long enteredAt = timings.enter("json");
+            try {
+                super.writeInternal(object, type, new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return buffer;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return outputMessage.getHeaders();
+                    }
+                });
+            } finally {
+                timings.exit("json", enteredAt);
+            }
+            buffer.writeTo(outputMessage.getBody());
+        }
+    }
+}
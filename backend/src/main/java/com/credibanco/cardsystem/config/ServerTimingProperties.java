@@ -0,0 +1,15 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.server-timing")
+public class ServerTimingProperties {
+
+    private boolean enabled = true;
+    // Fracción de peticiones medidas (0.0 - 1.0); las demás no pagan más que el sorteo
+    private double sampleRate = 0.05;
+}
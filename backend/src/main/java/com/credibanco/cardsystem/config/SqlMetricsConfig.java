@@ -0,0 +1,71 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Sentencias SQL por petición HTTP: Hibernate las cuenta con un {@code StatementInspector} y un filtro
+ * registra el total en {@code http.server.requests.sql.statements}, etiquetado por método y patrón de URI.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public SqlStatementMetricsFilter sqlStatementMetricsFilter(SqlStatementCounter sqlStatementCounter,
+                                                               MeterRegistry meterRegistry) {
+        return new SqlStatementMetricsFilter(sqlStatementCounter, meterRegistry);
+    }
+
+    public static class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+        private final SqlStatementCounter sqlStatementCounter;
+        private final MeterRegistry meterRegistry;
+
+        public SqlStatementMetricsFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+            this.sqlStatementCounter = sqlStatementCounter;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            sqlStatementCounter.start();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                int statements = sqlStatementCounter.stop();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("http.server.requests.sql.statements")
+                        .description("Sentencias SQL preparadas por petición")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(statements);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.service.SyntheticDataGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga datos sintéticos al arrancar si la base no tiene tarjetas. El perfil test lo habilita con un
+ * volumen pequeño; para reproducir volúmenes de producción basta con ajustar {@code app.synthetic-data.*}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.synthetic-data", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private final CardRepository cardRepository;
+    private final SyntheticDataGenerator generator;
+
+    @Override
+    public void run(String... args) {
+        if (cardRepository.count() == 0) {
+            log.info("Cargando datos sintéticos en la base de datos...");
+            generator.generate();
+        } else {
+            log.info("La base de datos ya contiene datos, omitiendo carga de datos sintéticos");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.synthetic-data")
+public class SyntheticDataProperties {
+
+    // Carga al arrancar sobre una base vacía (SyntheticDataLoader)
+    private boolean enabled = false;
+    private long cards = 20;
+    private int transactionsPerCard = 2;
+    // Fracción de tarjetas "calientes" y fracción de las transacciones que reciben
+    private double hotCardRatio = 0.01;
+    private double hotTransactionRatio = 0.5;
+    // Las transacciones se reparten entre hace monthsBack meses y hace una hora
+    private int monthsBack = 12;
+    private int chunkSize = 5000;
+    // Bloques escritos a la vez; cada uno ocupa una conexión del pool
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private long seed = 42L;
+}
@@ -0,0 +1,32 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Modo de hilos de la aplicación. Con {@code spring.threads.virtual.enabled=true} (perfil {@code virtual})
+ * y Java 21+, Spring Boot atiende las peticiones de Tomcat y el {@code applicationTaskExecutor} con hilos
+ * virtuales; el trabajo asíncrono de la aplicación debe usar ese ejecutor para heredar el modo.
+ */
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean active = Threading.VIRTUAL.isActive(environment);
+
+        if (requested && !active) {
+            log.warn("Hilos virtuales solicitados pero no disponibles en Java {}; se usan hilos de plataforma",
+                    Runtime.version().feature());
+        } else {
+            log.info("Modo de hilos: {}", active ? "virtual" : "plataforma");
+        }
+    }
+}
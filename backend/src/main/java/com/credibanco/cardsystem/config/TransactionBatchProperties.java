@@ -0,0 +1,13 @@
+package com.credibanco.cardsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.transaction-batch")
+public class TransactionBatchProperties {
+
+    private int chunkSize = 500;
+}
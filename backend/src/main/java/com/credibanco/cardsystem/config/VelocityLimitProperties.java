@@ -0,0 +1,36 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.model.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.velocity-limits")
+public class VelocityLimitProperties {
+
+    private boolean enabled = true;
+    private long maxTrackedCards = 1_000_000;
+    // Pasado este tiempo sin compras todas las ventanas de la tarjeta están vacías y su estado se descarta
+    private Duration idleExpiry = Duration.ofHours(25);
+    private Map<CardType, Profile> profiles = new EnumMap<>(Map.of(
+            CardType.CREDIT, new Profile(10, new BigDecimal("20000000"), new BigDecimal("50000000")),
+            CardType.DEBIT, new Profile(10, new BigDecimal("10000000"), new BigDecimal("20000000"))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Profile {
+        private int maxTransactionsPerMinute;
+        private BigDecimal maxAmountPerHour;
+        private BigDecimal maxAmountPerDay;
+    }
+}
@@ -1,24 +1,40 @@
 package com.credibanco.cardsystem.controller;
 
 import com.credibanco.cardsystem.dto.CardDetailsResponse;
+import com.credibanco.cardsystem.dto.CardImportResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
 import com.credibanco.cardsystem.dto.CreateCardRequest;
 import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
 import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.service.CardImportService;
 import com.credibanco.cardsystem.service.CardService;
+import com.credibanco.cardsystem.service.IdempotencyService;
+import com.credibanco.cardsystem.service.TransactionService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Slf4j
 @RestController
@@ -28,28 +44,57 @@ import org.springframework.web.bind.annotation.*;
 public class CardController {
 
     private final CardService cardService;
+    private final CardImportService cardImportService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionService transactionService;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<CreateCardResponse> createCard(@Valid @RequestBody CreateCardRequest request) {
-        log.info("Iniciando creación de tarjeta para cliente: {}", request.getDocumentNumber());
+    public ResponseEntity<CreateCardResponse> createCard(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false)
+            @Size(min = 1, max = 100, message = "La clave de idempotencia debe tener entre 1 y 100 caracteres")
+            String idempotencyKey,
+            @Valid @RequestBody CreateCardRequest request) {
+        log.debug("Iniciando creación de tarjeta para cliente: {}", request.getDocumentNumber());
         
         try {
-            CreateCardResponse response = cardService.createCard(request);
-            log.info("Tarjeta creada exitosamente con ID: {}", response.getIdentifier());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            IdempotencyService.Result<CreateCardResponse> result = idempotencyService.execute(
+                    "cards", idempotencyKey, request, CreateCardResponse.class,
+                    () -> cardService.createCard(request),
+                    CardService::withoutValidationNumber, cardService::withValidationNumber);
+            log.debug("Tarjeta creada exitosamente con ID: {} (repetida: {})",
+                    result.response().getIdentifier(), result.replayed());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.response());
         } catch (Exception e) {
             log.error("Error al crear tarjeta para cliente {}: {}", request.getDocumentNumber(), e.getMessage());
             throw e;
         }
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CardImportResponse> importCards(@RequestParam("file") MultipartFile file) throws IOException {
+        log.debug("Iniciando importación masiva de tarjetas desde archivo: {} ({} bytes)",
+                file.getOriginalFilename(), file.getSize());
+
+        try (InputStream input = file.getInputStream()) {
+            CardImportResponse response = cardImportService.importCsv(input);
+            log.debug("Importación masiva completada: {} importadas, {} rechazadas",
+                    response.getImported(), response.getRejected());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error en importación masiva de tarjetas: {}", e.getMessage());
+            throw e;
+        }
+    }
+
     @PutMapping(value = "/enroll", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Void> enrollCard(@Valid @RequestBody EnrollCardRequest request) {
-        log.info("Iniciando activación de tarjeta: {}", request.getIdentifier());
+        log.debug("Iniciando activación de tarjeta: {}", request.getIdentifier());
         
         try {
             cardService.enrollCard(request);
-            log.info("Tarjeta {} activada exitosamente", request.getIdentifier());
+            log.debug("Tarjeta {} activada exitosamente", request.getIdentifier());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error al activar tarjeta {}: {}", request.getIdentifier(), e.getMessage());
@@ -62,11 +107,11 @@ public class CardController {
             @PathVariable @NotBlank(message = "El identificador de la tarjeta no puede estar vacío")
             String identifier) {
         
-        log.info("Consultando detalles de tarjeta: {}", identifier);
+        log.debug("Consultando detalles de tarjeta: {}", identifier);
         
         try {
             CardDetailsResponse response = cardService.getCardDetails(identifier);
-            log.info("Detalles de tarjeta {} obtenidos exitosamente", identifier);
+            log.debug("Detalles de tarjeta {} obtenidos exitosamente", identifier);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error al consultar tarjeta {}: {}", identifier, e.getMessage());
@@ -74,16 +119,44 @@ public class CardController {
         }
     }
 
+    @GetMapping(value = "/{identifier}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<CreateTransactionResponse>> getCardTransactions(
+            @PathVariable @NotBlank(message = "El identificador de la tarjeta no puede estar vacío")
+            String identifier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+            @Max(value = 100, message = "El tamaño de página no puede superar 100")
+            int size) {
+
+        log.debug("Consultando transacciones de la tarjeta {} - Desde: {}, Hasta: {}, Estado: {}, Tamaño: {}",
+                identifier, from, to, status, size);
+
+        try {
+            CursorPage<CreateTransactionResponse> result =
+                    transactionService.getCardTransactions(identifier, from, to, status, after, size);
+            log.debug("Obtenidas {} transacciones de la tarjeta {}, hay más: {}",
+                    result.getNumberOfElements(), identifier, result.isHasNext());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error al consultar transacciones de la tarjeta {}: {}", identifier, e.getMessage());
+            throw e;
+        }
+    }
+
     @DeleteMapping("/{identifier}")
     public ResponseEntity<Void> deactivateCard(
             @PathVariable @NotBlank(message = "El identificador de la tarjeta no puede estar vacío")
             String identifier) {
         
-        log.info("Iniciando desactivación de tarjeta: {}", identifier);
+        log.debug("Iniciando desactivación de tarjeta: {}", identifier);
         
         try {
             cardService.deactivateCard(identifier);
-            log.info("Tarjeta {} desactivada exitosamente", identifier);
+            log.debug("Tarjeta {} desactivada exitosamente", identifier);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error al desactivar tarjeta {}: {}", identifier, e.getMessage());
@@ -98,7 +171,7 @@ public class CardController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        log.info("Consultando todas las tarjetas - Página: {}, Tamaño: {}, Ordenar por: {}, Dirección: {}", 
+        log.debug("Consultando todas las tarjetas - Página: {}, Tamaño: {}, Ordenar por: {}, Dirección: {}", 
                 page, size, sortBy, sortDir);
         
         try {
@@ -106,11 +179,31 @@ public class CardController {
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
             Page<CardDetailsResponse> cards = cardService.getAllCards(pageable);
-            log.info("Obtenidas {} tarjetas de un total de {}", cards.getNumberOfElements(), cards.getTotalElements());
+            log.debug("Obtenidas {} tarjetas de un total de {}", cards.getNumberOfElements(), cards.getTotalElements());
             return ResponseEntity.ok(cards);
         } catch (Exception e) {
             log.error("Error al consultar todas las tarjetas: {}", e.getMessage());
             throw e;
         }
     }
+
+    @GetMapping(params = "after", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<CardDetailsResponse>> getCardsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+            @Max(value = 100, message = "El tamaño de página no puede superar 100")
+            int size) {
+        
+        log.debug("Consultando tarjetas por cursor - Tamaño: {}", size);
+        
+        try {
+            CursorPage<CardDetailsResponse> result = cardService.getCardsAfter(after, size);
+            log.debug("Obtenidas {} tarjetas, hay más: {}", result.getNumberOfElements(), result.isHasNext());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error al consultar tarjetas por cursor: {}", e.getMessage());
+            throw e;
+        }
+    }
 }
\ No newline at end of file
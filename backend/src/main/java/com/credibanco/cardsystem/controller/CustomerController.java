@@ -0,0 +1,44 @@
+package com.credibanco.cardsystem.controller;
+
+import com.credibanco.cardsystem.dto.CustomerViewResponse;
+import com.credibanco.cardsystem.service.CustomerService;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/customers")
+@RequiredArgsConstructor
+@Validated
+public class CustomerController {
+
+    private final CustomerService customerService;
+
+    @GetMapping(value = "/{documentNumber}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CustomerViewResponse> getCustomer(
+            @PathVariable
+            @NotBlank(message = "El número de documento no puede estar vacío")
+            @Size(max = 20, message = "El número de documento no puede superar 20 caracteres")
+            String documentNumber) {
+
+        log.debug("Consultando vista de cliente con documento: {}", documentNumber);
+
+        try {
+            CustomerViewResponse response = customerService.getCustomer(documentNumber);
+            log.debug("Vista de cliente obtenida: {} tarjetas", response.getTotalCards());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error al consultar vista de cliente {}: {}", documentNumber, e.getMessage());
+            throw e;
+        }
+    }
+}
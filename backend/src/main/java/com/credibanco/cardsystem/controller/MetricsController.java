@@ -0,0 +1,26 @@
+package com.credibanco.cardsystem.controller;
+
+import com.credibanco.cardsystem.dto.DashboardMetricsResponse;
+import com.credibanco.cardsystem.service.DashboardMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final DashboardMetrics dashboardMetrics;
+
+    @GetMapping(value = "/dashboard", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DashboardMetricsResponse> getDashboard() {
+        log.debug("Consultando métricas del tablero");
+        return ResponseEntity.ok(dashboardMetrics.snapshot());
+    }
+}
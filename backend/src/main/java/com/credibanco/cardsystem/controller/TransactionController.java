@@ -3,19 +3,40 @@ package com.credibanco.cardsystem.controller;
 import com.credibanco.cardsystem.dto.CancelTransactionRequest;
 import com.credibanco.cardsystem.dto.CreateTransactionRequest;
 import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.dto.ExportFormat;
+import com.credibanco.cardsystem.exception.InvalidExportRequestException;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.service.IdempotencyService;
+import com.credibanco.cardsystem.service.TransactionBatchService;
+import com.credibanco.cardsystem.service.TransactionExportService;
 import com.credibanco.cardsystem.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -25,16 +46,28 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<CreateTransactionResponse> createTransaction(@Valid @RequestBody CreateTransactionRequest request) {
-        log.info("Iniciando creación de transacción para tarjeta: {} por monto: {}", 
+    public ResponseEntity<CreateTransactionResponse> createTransaction(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false)
+            @Size(min = 1, max = 100, message = "La clave de idempotencia debe tener entre 1 y 100 caracteres")
+            String idempotencyKey,
+            @Valid @RequestBody CreateTransactionRequest request) {
+        log.debug("Iniciando creación de transacción para tarjeta: {} por monto: {}", 
                 request.getCardIdentifier(), request.getTotalAmount());
         
         try {
-            CreateTransactionResponse response = transactionService.createTransaction(request);
-            log.info("Transacción creada exitosamente con referencia: {}", response.getReferenceNumber());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            IdempotencyService.Result<CreateTransactionResponse> result = idempotencyService.execute(
+                    "transactions", idempotencyKey, request, CreateTransactionResponse.class,
+                    () -> transactionService.createTransaction(request));
+            log.debug("Transacción creada exitosamente con referencia: {} (repetida: {})",
+                    result.response().getReferenceNumber(), result.replayed());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.response());
         } catch (Exception e) {
             log.error("Error al crear transacción para tarjeta {}: {}", 
                     request.getCardIdentifier(), e.getMessage());
@@ -42,13 +75,72 @@ public class TransactionController {
         }
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createTransactionBatch(HttpServletRequest request) throws IOException {
+        log.debug("Iniciando lote NDJSON de transacciones");
+
+        InputStream input = request.getInputStream();
+        StreamingResponseBody body = output -> {
+            try {
+                transactionBatchService.process(input, output);
+            } catch (Exception e) {
+                log.error("Error en lote NDJSON de transacciones: {}", e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        log.debug("Iniciando exportación de transacciones - Desde: {}, Hasta: {}, Estado: {}, Formato: {}",
+                from, to, status, format);
+
+        if (!from.isBefore(to)) {
+            throw new InvalidExportRequestException("'from' must be before 'to'");
+        }
+        ExportFormat exportFormat = parseFormat(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = output -> {
+            OutputStream target = gzip ? new GZIPOutputStream(output, 1 << 16) : output;
+            try {
+                transactionExportService.export(from, to, status, exportFormat, target);
+                if (target instanceof GZIPOutputStream gzipOutput) {
+                    gzipOutput.finish();
+                }
+            } catch (Exception e) {
+                log.error("Error al exportar transacciones: {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @PutMapping(value = "/cancel", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Void> cancelTransaction(@Valid @RequestBody CancelTransactionRequest request) {
-        log.info("Iniciando cancelación de transacción con referencia: {}", request.getReferenceNumber());
+        log.debug("Iniciando cancelación de transacción con referencia: {}", request.getReferenceNumber());
         
         try {
             transactionService.cancelTransaction(request);
-            log.info("Transacción {} cancelada exitosamente", request.getReferenceNumber());
+            log.debug("Transacción {} cancelada exitosamente", request.getReferenceNumber());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error al cancelar transacción {}: {}", request.getReferenceNumber(), e.getMessage());
@@ -63,7 +155,7 @@ public class TransactionController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
-        log.info("Consultando todas las transacciones - Página: {}, Tamaño: {}, Ordenar por: {}, Dirección: {}", 
+        log.debug("Consultando todas las transacciones - Página: {}, Tamaño: {}, Ordenar por: {}, Dirección: {}", 
                 page, size, sortBy, sortDir);
         
         try {
@@ -71,7 +163,7 @@ public class TransactionController {
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
             
             Page<CreateTransactionResponse> transactions = transactionService.getAllTransactions(pageable);
-            log.info("Obtenidas {} transacciones de un total de {}", 
+            log.debug("Obtenidas {} transacciones de un total de {}", 
                     transactions.getNumberOfElements(), transactions.getTotalElements());
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
@@ -79,4 +171,69 @@ public class TransactionController {
             throw e;
         }
     }
+
+    @GetMapping(params = "after", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPage<CreateTransactionResponse>> getTransactionsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+            @Max(value = 100, message = "El tamaño de página no puede superar 100")
+            int size) {
+        
+        log.debug("Consultando transacciones por cursor - Tamaño: {}", size);
+        
+        try {
+            CursorPage<CreateTransactionResponse> result = transactionService.getTransactionsAfter(after, size);
+            log.debug("Obtenidas {} transacciones, hay más: {}", result.getNumberOfElements(), result.isHasNext());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error al consultar transacciones por cursor: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Accept-Encoding con sus valores q: gzip (o x-gzip) con q > 0, o el comodín si gzip no aparece.
+     * Un q inválido cuenta como 0, de modo que "gzip;q=0" o "gzip;q=abc" devuelven el cuerpo sin comprimir.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            boolean accepted = quality(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportRequestException("Unsupported export format: " + format);
+        }
+    }
 }
\ No newline at end of file
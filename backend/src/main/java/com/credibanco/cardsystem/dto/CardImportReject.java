@@ -0,0 +1,17 @@
+package com.credibanco.cardsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportReject {
+
+    private long line;
+    private String maskedPan;
+    private String reason;
+}
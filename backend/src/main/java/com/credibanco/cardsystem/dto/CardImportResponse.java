@@ -0,0 +1,23 @@
+package com.credibanco.cardsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardImportResponse {
+
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private long durationMillis;
+    private double cardsPerSecond;
+    private List<CardImportReject> rejects;
+    private boolean rejectsTruncated;
+}
@@ -0,0 +1,13 @@
+package com.credibanco.cardsystem.dto;
+
+import com.credibanco.cardsystem.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del historial de una tarjeta leída como proyección; el id sólo se usa para el cursor.
+ */
+public record CardTransactionRow(Long id, String referenceNumber, BigDecimal totalAmount, String purchaseAddress,
+                                 TransactionStatus status, LocalDateTime createdAt) {
+}
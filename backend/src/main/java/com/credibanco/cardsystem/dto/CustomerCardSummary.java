@@ -0,0 +1,31 @@
+package com.credibanco.cardsystem.dto;
+
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerCardSummary {
+    private String identifier;
+    private String maskedPan;
+    private CardType cardType;
+    private String phoneNumber;
+    private CardStatus status;
+    private LocalDateTime createdAt;
+    private long totalTransactions;
+    private long approvedTransactions;
+    private long rejectedTransactions;
+    private long cancelledTransactions;
+    private BigDecimal approvedAmount;
+    private List<CreateTransactionResponse> recentTransactions;
+}
@@ -0,0 +1,13 @@
+package com.credibanco.cardsystem.dto;
+
+import com.credibanco.cardsystem.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transacción reciente de una de las tarjetas de un cliente, leída como proyección junto con su card_id.
+ */
+public record CustomerTransactionRow(Long cardId, String referenceNumber, BigDecimal totalAmount,
+                                     String purchaseAddress, TransactionStatus status, LocalDateTime createdAt) {
+}
@@ -0,0 +1,22 @@
+package com.credibanco.cardsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerViewResponse {
+    private String documentNumber;
+    private String holderName;
+    private int totalCards;
+    private long totalTransactions;
+    private BigDecimal approvedAmount;
+    private List<CustomerCardSummary> cards;
+}
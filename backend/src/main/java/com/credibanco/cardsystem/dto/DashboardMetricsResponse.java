@@ -0,0 +1,27 @@
+package com.credibanco.cardsystem.dto;
+
+import com.credibanco.cardsystem.model.CardStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardMetricsResponse {
+
+    private long totalCards;
+    private Map<CardStatus, Long> cardsByStatus;
+    private long totalTransactions;
+    private long approvedTransactions;
+    private long cancelledTransactions;
+    private BigDecimal approvedAmount;
+    private long transactionsToday;
+    private LocalDateTime reconciledAt;
+}
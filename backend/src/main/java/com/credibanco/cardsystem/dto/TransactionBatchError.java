@@ -0,0 +1,19 @@
+package com.credibanco.cardsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de error del lote NDJSON; {@code line} es la línea (desde 1) del cuerpo de la petición.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchError {
+
+    private long line;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.credibanco.cardsystem.dto;
+
+import com.credibanco.cardsystem.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transacción del listado por cursor leída como proyección con el identificador de su tarjeta; el id sólo se
+ * usa para el cursor.
+ */
+public record TransactionRow(Long id, String referenceNumber, String cardIdentifier, BigDecimal totalAmount,
+                             String purchaseAddress, TransactionStatus status, LocalDateTime createdAt) {
+}
@@ -0,0 +1,11 @@
+package com.credibanco.cardsystem.exception;
+
+public class CardImportException extends RuntimeException {
+    public CardImportException(String message) {
+        super(message);
+    }
+
+    public CardImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
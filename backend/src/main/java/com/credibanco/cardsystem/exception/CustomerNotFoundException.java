@@ -0,0 +1,7 @@
+package com.credibanco.cardsystem.exception;
+
+public class CustomerNotFoundException extends RuntimeException {
+    public CustomerNotFoundException(String message) {
+        super(message);
+    }
+}
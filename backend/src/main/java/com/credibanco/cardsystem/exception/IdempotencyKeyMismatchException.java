@@ -0,0 +1,7 @@
+package com.credibanco.cardsystem.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
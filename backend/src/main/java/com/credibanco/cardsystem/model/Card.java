@@ -10,7 +10,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_cards_status", columnList = "status"),
+        @Index(name = "idx_cards_document_number", columnList = "document_number"),
+        @Index(name = "uk_cards_pan_hash", columnList = "pan_hash", unique = true)
+})
+@EntityListeners(PanHashListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +24,7 @@ import java.time.LocalDateTime;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "cards_seq")
     private Long id;
 
     @Column(name = "identifier", unique = true, nullable = false)
@@ -27,6 +33,11 @@ public class Card {
     @Column(name = "pan", nullable = false, length = 16)
     private String pan;
 
+    // HMAC-SHA256 del PAN: clave única de búsqueda, para no consultar por el PAN en claro.
+    // Admite NULL sólo para filas anteriores a la columna, que se completan al arrancar
+    @Column(name = "pan_hash", length = 64)
+    private String panHash;
+
     @Column(name = "holder_name", nullable = false)
     private String holderName;
 
@@ -48,6 +59,10 @@ public class Card {
     @Column(name = "validation_number", length = 6)
     private String validationNumber;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
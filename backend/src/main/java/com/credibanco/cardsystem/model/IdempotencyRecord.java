@@ -0,0 +1,52 @@
+package com.credibanco.cardsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_scope_key", columnNames = {"scope", "idempotency_key"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @PooledSequence(name = "idempotency_keys_seq")
+    private Long id;
+
+    // Operación a la que pertenece la clave (cards, transactions)
+    @Column(name = "scope", nullable = false, length = 30)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // HMAC-SHA256 (clave de PanHasher) del cuerpo de la petición original: la misma clave con otro cuerpo se rechaza
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // PENDING mientras la operación está en curso; la respuesta sólo existe en COMPLETED
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.credibanco.cardsystem.model;
+
+public enum IdempotencyStatus {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,24 @@
+package com.credibanco.cardsystem.model;
+
+import com.credibanco.cardsystem.util.PanHasher;
+import jakarta.persistence.PrePersist;
+
+/**
+ * Completa {@code panHash} en toda tarjeta que se inserte sin él (carga inicial, pruebas, importación).
+ * Hibernate obtiene la instancia del contenedor de Spring.
+ */
+public class PanHashListener {
+
+    private final PanHasher panHasher;
+
+    public PanHashListener(PanHasher panHasher) {
+        this.panHasher = panHasher;
+    }
+
+    @PrePersist
+    void hashPan(Card card) {
+        if (card.getPanHash() == null && card.getPan() != null) {
+            card.setPanHash(panHasher.hash(card.getPan()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.credibanco.cardsystem.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identificador generado por una secuencia agrupada (tabla de secuencia en MySQL), lo que permite
+ * a Hibernate agrupar los INSERT en lotes JDBC, en bloques de
+ * {@value PooledSequenceGenerator#ALLOCATION_SIZE} ids.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    String name();
+}
@@ -11,7 +11,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_transactions_card_id_created_at", columnList = "card_id, created_at"),
+        @Index(name = "idx_transactions_status_created_at", columnList = "status, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +23,7 @@ import java.time.LocalDateTime;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "transactions_seq")
     private Long id;
 
     @Column(name = "card_id", nullable = false)
@@ -39,6 +43,10 @@ public class Transaction {
     @Builder.Default
     private TransactionStatus status = TransactionStatus.APPROVED;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,13 +1,70 @@
 package com.credibanco.cardsystem.repository;
 
 import com.credibanco.cardsystem.model.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
     Optional<Card> findByIdentifier(String identifier);
-    boolean existsByPan(String pan);
-}
\ No newline at end of file
+    List<Card> findByIdentifierIn(Collection<String> identifiers);
+    boolean existsByPanHash(String panHash);
+
+    // Tarjetas de un cliente sobre el índice document_number
+    List<Card> findByDocumentNumberOrderByCreatedAtDesc(String documentNumber);
+
+    // Deduplicación por lotes de la importación masiva
+    @Query("select c.panHash from Card c where c.panHash in :panHashes")
+    List<String> findExistingPanHashes(@Param("panHashes") Collection<String> panHashes);
+
+    // Reconstrucción del filtro de PAN existentes
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c.panHash from Card c where c.panHash is not null")
+    Stream<String> streamPanHashes();
+
+    // Filas anteriores a la columna pan_hash: [id, pan]
+    @Query("select c.id, c.pan from Card c where c.panHash is null order by c.id")
+    List<Object[]> findWithoutPanHash(Pageable pageable);
+
+    @Modifying
+    @Query("update Card c set c.panHash = :panHash where c.id = :id")
+    int updatePanHash(@Param("id") Long id, @Param("panHash") String panHash);
+
+    // Confirma una tarjeta cacheada al autorizar una compra: 1 si la fila sigue en esa versión. No cambia nada,
+    // pero bloquea la fila hasta el commit, de modo que un cambio de estado concurrente espera a la compra.
+    // MySQL (Connector/J) cuenta las filas encontradas y no sólo las modificadas
+    @Modifying
+    @Query("update Card c set c.version = c.version where c.id = :id and c.version = :version")
+    int lockIfUnchanged(@Param("id") Long id, @Param("version") Long version);
+
+    // Reconciliación de las métricas del tablero: [status, count]
+    @Query("select c.status, count(c) from Card c group by c.status")
+    List<Object[]> countByStatus();
+
+    // Paginación por llave sobre el índice (created_at, id), sin OFFSET ni COUNT
+    @Query("select c from Card c order by c.createdAt desc, c.id desc")
+    Slice<Card> findFirstSlice(Pageable pageable);
+
+    // La cota createdAt <= :createdAt da al índice un rango; con sólo el OR el motor recorre la tabla
+    @Query("select c from Card c "
+            + "where c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id) "
+            + "order by c.createdAt desc, c.id desc")
+    Slice<Card> findSliceAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,35 @@
+package com.credibanco.cardsystem.repository;
+
+import com.credibanco.cardsystem.model.IdempotencyRecord;
+import com.credibanco.cardsystem.model.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.responseBody = :responseBody where r.id = :id")
+    int complete(@Param("id") Long id, @Param("status") IdempotencyStatus status,
+                 @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.createdAt < :cutoff")
+    int deleteIfCreatedBefore(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
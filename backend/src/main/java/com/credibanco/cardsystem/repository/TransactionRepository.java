@@ -1,12 +1,136 @@
 package com.credibanco.cardsystem.repository;
 
+import com.credibanco.cardsystem.dto.CardTransactionRow;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CustomerTransactionRow;
+import com.credibanco.cardsystem.dto.TransactionRow;
 import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByReferenceNumber(String referenceNumber);
-}
\ No newline at end of file
+
+    // Llave del cerrojo por tarjeta para operaciones que sólo conocen la referencia
+    @Query("select c.identifier from Transaction t join t.card c where t.referenceNumber = :referenceNumber")
+    Optional<String> findCardIdentifierByReferenceNumber(@Param("referenceNumber") String referenceNumber);
+
+    // Proyección con el identificador de la tarjeta en la misma consulta (evita N+1)
+    @Query(value = "select new com.credibanco.cardsystem.dto.CreateTransactionResponse("
+            + "t.referenceNumber, c.identifier, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t join t.card c",
+            countQuery = "select count(t) from Transaction t")
+    Page<CreateTransactionResponse> findAllWithCardIdentifier(Pageable pageable);
+
+    // Cancelación desde el índice en memoria: cambia el estado sin leer la fila; 0 si ya no estaba en :from
+    @Modifying
+    @Query("update Transaction t set t.status = :to, t.version = t.version + 1 where t.id = :id and t.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") TransactionStatus from, @Param("to") TransactionStatus to);
+
+    // Reconciliación de las métricas del tablero: [status, count, sum(totalAmount)]
+    @Query("select t.status, count(t), coalesce(sum(t.totalAmount), 0) from Transaction t group by t.status")
+    List<Object[]> summarizeByStatus();
+
+    @Query("select count(t) from Transaction t where t.createdAt >= :from and t.createdAt < :to")
+    long countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Exportación: cursor de solo avance sobre una proyección (sin entidades en el contexto de persistencia)
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.credibanco.cardsystem.dto.CreateTransactionResponse("
+            + "t.referenceNumber, c.identifier, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t join t.card c "
+            + "where t.createdAt >= :from and t.createdAt < :to "
+            + "and (:status is null or t.status = :status) "
+            + "order by t.createdAt, t.id")
+    Stream<CreateTransactionResponse> streamForExport(@Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      @Param("status") TransactionStatus status);
+
+    // Paginación por llave sobre el índice (created_at, id), sin OFFSET ni COUNT; proyección con el
+    // identificador de la tarjeta, sin entidades
+    @Query("select new com.credibanco.cardsystem.dto.TransactionRow("
+            + "t.id, t.referenceNumber, c.identifier, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t join t.card c "
+            + "order by t.createdAt desc, t.id desc")
+    Slice<TransactionRow> findFirstSlice(Pageable pageable);
+
+    // La cota createdAt <= :createdAt da al índice un rango; con sólo el OR el motor recorre la tabla
+    @Query("select new com.credibanco.cardsystem.dto.TransactionRow("
+            + "t.id, t.referenceNumber, c.identifier, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t join t.card c "
+            + "where t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id) "
+            + "order by t.createdAt desc, t.id desc")
+    Slice<TransactionRow> findSliceAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Historial de una tarjeta por llave sobre el índice (card_id, created_at): proyección sin entidades,
+    // de la más reciente a la más antigua
+    @Query("select new com.credibanco.cardsystem.dto.CardTransactionRow("
+            + "t.id, t.referenceNumber, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t "
+            + "where t.cardId = :cardId and t.createdAt >= :from and t.createdAt < :to "
+            + "and (:status is null or t.status = :status) "
+            + "order by t.createdAt desc, t.id desc")
+    Slice<CardTransactionRow> findCardHistory(@Param("cardId") Long cardId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("status") TransactionStatus status,
+                                              Pageable pageable);
+
+    @Query("select new com.credibanco.cardsystem.dto.CardTransactionRow("
+            + "t.id, t.referenceNumber, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from Transaction t "
+            + "where t.cardId = :cardId and t.createdAt >= :from and t.createdAt < :to "
+            + "and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id) "
+            + "and (:status is null or t.status = :status) "
+            + "order by t.createdAt desc, t.id desc")
+    Slice<CardTransactionRow> findCardHistoryAfter(@Param("cardId") Long cardId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("status") TransactionStatus status,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    // Transacciones recientes de cada tarjeta, en una sola consulta: por tarjeta se busca en el índice
+    // (card_id, created_at) la fecha de su transacción número :offset + 1 (o la más antigua si tiene menos) y
+    // sólo se lee ese rango (en MySQL el índice también respalda la clave foránea). Las empatadas en esa fecha
+    // también se devuelven; el llamador se queda con las primeras de cada tarjeta
+    @Query("select new com.credibanco.cardsystem.dto.CustomerTransactionRow("
+            + "t.cardId, t.referenceNumber, t.totalAmount, t.purchaseAddress, t.status, t.createdAt) "
+            + "from (select c.id cardId, coalesce("
+            + "(select r.createdAt from Transaction r where r.cardId = c.id "
+            + "order by r.createdAt desc, r.id desc offset :offset rows fetch first 1 rows only), "
+            + "(select min(r.createdAt) from Transaction r where r.cardId = c.id)) cutoff "
+            + "from Card c where c.id in :cardIds) k "
+            + "join Transaction t on t.cardId = k.cardId and t.createdAt >= k.cutoff "
+            + "order by t.createdAt desc, t.id desc")
+    List<CustomerTransactionRow> findRecentByCardIdIn(@Param("cardIds") Collection<Long> cardIds,
+                                                      @Param("offset") int offset);
+
+    // Totales por tarjeta y estado: [cardId, status, count, sum(totalAmount)]. Lee todas las transacciones
+    // de esas tarjetas por el índice (card_id, created_at)
+    @Query("select t.cardId, t.status, count(t), sum(t.totalAmount) "
+            + "from Transaction t where t.cardId in :cardIds group by t.cardId, t.status")
+    List<Object[]> summarizeByCardIdIn(@Param("cardIds") Collection<Long> cardIds);
+}
@@ -1,15 +1,25 @@
 package com.credibanco.cardsystem.service;
 
+import com.credibanco.cardsystem.config.AuditProperties;
 import com.credibanco.cardsystem.model.AuditLog;
 import com.credibanco.cardsystem.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditWriter auditWriter;
+    private final AuditProperties auditProperties;
 
     public void logAction(String action, String entity, String entityIdentifier, String description) {
         AuditLog auditLog = AuditLog.builder()
@@ -17,8 +27,51 @@ public class AuditService {
                 .entity(entity)
                 .entityIdentifier(entityIdentifier)
                 .description(description)
+                .createdAt(LocalDateTime.now())
                 .build();
-        
-        auditLogRepository.save(auditLog);
+
+        // Los modos con cola encolan al confirmar: el trabajo que se revierte no queda auditado
+        switch (auditProperties.getMode()) {
+            case SYNC -> auditLogRepository.save(auditLog);
+            case FIRE_AND_FORGET -> afterCommit(() -> auditWriter.offer(auditLog));
+            case AFTER_COMMIT -> afterCommit(() -> enqueueOrWrite(auditLog));
+        }
+    }
+
+    /**
+     * Registra la misma acción para varias entidades dentro de la transacción actual con un único
+     * {@code saveAll} (lotes JDBC). Pensado para cargas masivas, que desbordarían la cola del escritor.
+     */
+    public void logActions(String action, String entity, Map<String, String> descriptionsByIdentifier) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> auditLogs = new ArrayList<>(descriptionsByIdentifier.size());
+        descriptionsByIdentifier.forEach((entityIdentifier, description) -> auditLogs.add(AuditLog.builder()
+                .action(action)
+                .entity(entity)
+                .entityIdentifier(entityIdentifier)
+                .description(description)
+                .createdAt(now)
+                .build()));
+        auditLogRepository.saveAll(auditLogs);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void enqueueOrWrite(AuditLog auditLog) {
+        // Con la cola llena se escribe en línea en lugar de perder el registro
+        if (!auditWriter.offer(auditLog)) {
+            auditWriter.writeNow(List.of(auditLog));
+        }
     }
-}
\ No newline at end of file
+}
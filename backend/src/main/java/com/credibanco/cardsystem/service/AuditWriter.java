@@ -0,0 +1,208 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.AuditProperties;
+import com.credibanco.cardsystem.model.AuditLog;
+import com.credibanco.cardsystem.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cola acotada de registros de auditoría que un hilo en segundo plano escribe en lotes JDBC,
+ * al alcanzar el tamaño de lote o el intervalo de vaciado. Al detenerse deja de aceptar registros y
+ * vacía lo pendiente; lo que el hilo no alcance a escribir se escribe en el hilo que detiene.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditProperties properties;
+    private final BlockingQueue<AuditLog> queue;
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    // offer comprueba running y encola bajo la lectura; detenerse toma la escritura, así que tras
+    // close() ningún registro entra en la cola sin que el escritor o stop() lo vean
+    private final ReadWriteLock state = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(AuditLogRepository auditLogRepository, PlatformTransactionManager transactionManager,
+                       AuditProperties properties, MeterRegistry meterRegistry) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Registros de auditoría pendientes de escritura")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Latencia de escritura de cada lote de auditoría")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.written").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("audit.queue.rejected")
+                .description("Registros que no cupieron en la cola").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.failed").register(meterRegistry);
+    }
+
+    /**
+     * Encola sin bloquear. Devuelve false si la cola está llena o el escritor está detenido.
+     */
+    public boolean offer(AuditLog auditLog) {
+        state.readLock().lock();
+        try {
+            if (running && queue.offer(auditLog)) {
+                return true;
+            }
+        } finally {
+            state.readLock().unlock();
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Escribe en línea, en una transacción propia, sin pasar por la cola.
+     */
+    public void writeNow(List<AuditLog> batch) {
+        flush(batch);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        setRunning(true);
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            setRunning(false);
+            current = worker;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            log.warn("El escritor de auditoría no terminó a tiempo, {} registros pendientes", queue.size());
+        }
+        drainRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Se detiene después del servidor web para vaciar lo que dejaron las últimas peticiones
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        int batchSize = properties.getBatchSize();
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Con la marca de interrupción poll() lanzaría otra vez de inmediato: se sale y stop()
+                // escribe lo pendiente; mientras tanto offer rechaza y AFTER_COMMIT escribe en línea
+                Thread.currentThread().interrupt();
+                setRunning(false);
+                log.warn("Escritor de auditoría interrumpido, {} registros pendientes", queue.size());
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("Escritor de auditoría detenido");
+    }
+
+    private void setRunning(boolean value) {
+        state.writeLock().lock();
+        try {
+            running = value;
+        } finally {
+            state.writeLock().unlock();
+        }
+    }
+
+    private void drainRemaining() {
+        List<AuditLog> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Los IDs salen de la secuencia agrupada, así que Hibernate envía el lote en bloques JDBC
+            transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.error("Error escribiendo lote de {} registros de auditoría: {}", batch.size(), e.getMessage(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CancellationIndexProperties;
+import com.credibanco.cardsystem.model.Transaction;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Índice en memoria de las transacciones APPROVED que aún pueden cancelarse, agrupadas en cubetas de un
+ * minuto según su creación. Las cubetas forman un anillo: al reutilizar una se descarta su mapa entero, así
+ * que expirar cuesta O(1) por cubeta y no por transacción.
+ * <p>
+ * Sólo conoce lo que se confirmó desde el arranque. Mientras no haya cubierto una ventana completa de
+ * cancelación, una referencia ausente no prueba nada y debe consultarse en la base; después, si el índice es
+ * autoritativo, la ausencia basta para rechazar.
+ */
+@Service
+public class CancellableTransactionIndex {
+
+    // Igual que la regla de cancelación: toMinutes() > 5 admite hasta 5:59.999
+    static final Duration RETENTION = Duration.ofMinutes(6);
+    private static final long BUCKET_MILLIS = 60_000L;
+    private static final int BUCKETS = 8;
+
+    private final CancellationIndexProperties properties;
+    private final AtomicReferenceArray<Bucket> ring = new AtomicReferenceArray<>(BUCKETS);
+    private volatile long coveredSince = Long.MAX_VALUE;
+
+    public CancellableTransactionIndex(CancellationIndexProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Regla de negocio: una transacción sólo puede cancelarse dentro de los 5 minutos siguientes a su creación.
+     */
+    public static boolean isExpired(LocalDateTime createdAt, LocalDateTime now) {
+        return Duration.between(createdAt, now).toMinutes() > 5;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCoverage() {
+        coverFrom(System.currentTimeMillis());
+    }
+
+    /**
+     * Indexa una transacción aprobada cuando su transacción confirma (createdAt ya está asignado).
+     */
+    public void approved(Transaction transaction, String cardIdentifier) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> put(new Entry(transaction.getId(), transaction.getCardId(), cardIdentifier,
+                transaction.getReferenceNumber(), transaction.getTotalAmount(),
+                transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now())));
+    }
+
+    public void cancelled(String referenceNumber) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> remove(referenceNumber));
+    }
+
+    public Optional<Entry> find(String referenceNumber) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        long oldest = minuteOf(System.currentTimeMillis() - RETENTION.toMillis());
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.minute >= oldest) {
+                Entry entry = bucket.entries.get(referenceNumber);
+                if (entry != null) {
+                    return Optional.of(entry);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Si una referencia ausente del índice puede rechazarse sin consultar la base.
+     */
+    public boolean isAuthoritative() {
+        return properties.isEnabled() && properties.isAuthoritative()
+                && System.currentTimeMillis() - coveredSince >= RETENTION.toMillis();
+    }
+
+    void coverFrom(long millis) {
+        coveredSince = millis;
+    }
+
+    private void put(Entry entry) {
+        long minute = minuteOf(toMillis(entry.createdAt()));
+        int index = (int) Math.floorMod(minute, (long) BUCKETS);
+        while (true) {
+            Bucket bucket = ring.get(index);
+            if (bucket != null && bucket.minute == minute) {
+                bucket.entries.put(entry.referenceNumber(), entry);
+                return;
+            }
+            if (bucket != null && bucket.minute > minute) {
+                // La cubeta ya se reutilizó para un minuto posterior: la transacción expiró
+                return;
+            }
+            ring.compareAndSet(index, bucket, new Bucket(minute));
+        }
+    }
+
+    private void remove(String referenceNumber) {
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.entries.remove(referenceNumber) != null) {
+                return;
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long minuteOf(long millis) {
+        return Math.floorDiv(millis, BUCKET_MILLIS);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record Entry(Long id, Long cardId, String cardIdentifier, String referenceNumber,
+                        BigDecimal totalAmount, LocalDateTime createdAt) {
+    }
+
+    private static final class Bucket {
+        private final long minute;
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CardCacheProperties;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché local acotada (W-TinyLFU) de tarjetas por identificador. Guarda una {@link Snapshot} inmutable
+ * y no la entidad: la invalidación es sólo de este nodo, así que el estado cacheado puede estar
+ * desactualizado hasta el TTL. Basta para los detalles de la tarjeta; una compra además confirma la
+ * versión cacheada contra la base (ver {@code CardService.findForPurchase}).
+ */
+@Component
+public class CardCache {
+
+    private final Cache<String, Snapshot> cache;
+    private final boolean enabled;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CardCache(CardCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cards");
+    }
+
+    /**
+     * Devuelve la tarjeta cacheada o la carga con {@code loader}; los resultados nulos no se cachean.
+     * <p>
+     * La carga es JDBC y se hace fuera de {@code cache.get(key, loader)}: ese cómputo corre dentro de un
+     * bloque {@code synchronized} del mapa, que fija el hilo portador de un hilo virtual (JDK 21 a 23)
+     * mientras dura la consulta. A cambio, dos fallos simultáneos de la misma tarjeta la leen ambos, y lo
+     * cargado se descarta si hubo una invalidación durante la carga.
+     */
+    public Snapshot get(String identifier, Function<String, Snapshot> loader) {
+        if (!enabled) {
+            return loader.apply(identifier);
+        }
+        Snapshot cached = cache.getIfPresent(identifier);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        Snapshot loaded = loader.apply(identifier);
+        if (loaded != null) {
+            cache.put(identifier, loaded);
+            // La invalidación cuenta antes de borrar: si no se ve aquí, su borrado llega después del put
+            if (invalidations.get() != seen) {
+                cache.asMap().remove(identifier, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalida de inmediato y, si hay una transacción activa, otra vez al terminar para descartar
+     * lecturas concurrentes que hayan cacheado el estado anterior.
+     */
+    public void invalidate(String identifier) {
+        evict(identifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(identifier);
+                }
+            });
+        }
+    }
+
+    private void evict(String identifier) {
+        invalidations.incrementAndGet();
+        cache.invalidate(identifier);
+    }
+
+    /**
+     * Lo que sirven los detalles de la tarjeta y la autorización de compras; el PAN sólo enmascarado y sin el
+     * número de validación.
+     */
+    public record Snapshot(Long id, String identifier, String maskedPan, String holderName, String documentNumber,
+                           CardType cardType, String phoneNumber, CardStatus status, LocalDateTime createdAt,
+                           Long version) {
+
+        public static Snapshot of(Card card) {
+            return new Snapshot(card.getId(), card.getIdentifier(), CardUtils.maskPan(card.getPan()),
+                    card.getHolderName(), card.getDocumentNumber(), card.getCardType(), card.getPhoneNumber(),
+                    card.getStatus(), card.getCreatedAt(), card.getVersion());
+        }
+    }
+}
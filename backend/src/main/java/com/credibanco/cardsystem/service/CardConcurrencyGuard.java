@@ -0,0 +1,135 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.ConcurrencyProperties;
+import com.credibanco.cardsystem.exception.ConcurrentUpdateException;
+import com.credibanco.cardsystem.util.StripedLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa en la JVM el trabajo sobre una misma tarjeta mediante cerrojos por franjas y ejecuta cada
+ * unidad en su propia transacción, reintentando de forma acotada cuando el control optimista
+ * ({@code @Version}) detecta una escritura concurrente de otro nodo. El cerrojo se libera después del
+ * commit para que el siguiente hilo vea el estado confirmado.
+ */
+@Component
+@Slf4j
+public class CardConcurrencyGuard {
+
+    private final StripedLock locks;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrencyProperties properties;
+    private final Counter retries;
+    private final Counter conflicts;
+
+    public CardConcurrencyGuard(PlatformTransactionManager transactionManager,
+                                ConcurrencyProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.locks = new StripedLock(properties.getStripes());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.retries = meterRegistry.counter("card.concurrency.retries");
+        this.conflicts = meterRegistry.counter("card.concurrency.conflicts");
+    }
+
+    public <T> T execute(String cardIdentifier, Supplier<T> work) {
+        ReentrantLock lock = acquire(cardIdentifier);
+        try {
+            return executeWithRetry(work);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void run(String cardIdentifier, Runnable work) {
+        execute(cardIdentifier, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Variante para lotes que tocan varias tarjetas: toma las franjas en orden ascendente y ejecuta
+     * el trabajo en una sola transacción.
+     */
+    public <T> T executeAll(Collection<String> cardIdentifiers, Supplier<T> work) {
+        int[] indexes = locks.orderedIndexes(cardIdentifiers);
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                held.add(acquire(locks.stripe(index)));
+            }
+            return executeWithRetry(work);
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private ReentrantLock acquire(String cardIdentifier) {
+        return acquire(locks.lockFor(cardIdentifier));
+    }
+
+    private ReentrantLock acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(properties.getLockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                conflicts.increment();
+                throw new ConcurrentUpdateException("Card is busy, please retry");
+            }
+            return lock;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for card lock", e);
+        }
+    }
+
+    private <T> T executeWithRetry(Supplier<T> work) {
+        // Dentro de una transacción existente no se puede reintentar: quedaría marcada como rollback-only
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    conflicts.increment();
+                    throw new ConcurrentUpdateException("Concurrent update detected, please retry", e);
+                }
+                retries.increment();
+                log.debug("Conflicto optimista en intento {}, reintentando: {}", attempt, e.getMessage());
+                backoff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long millis = properties.getRetryBackoff().toMillis() * attempt;
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying", e);
+        }
+    }
+}
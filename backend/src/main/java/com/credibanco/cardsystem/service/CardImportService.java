@@ -0,0 +1,354 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CardImportProperties;
+import com.credibanco.cardsystem.dto.CardImportReject;
+import com.credibanco.cardsystem.dto.CardImportResponse;
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.exception.CardImportException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.CsvLineParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de tarjetas desde CSV. El archivo se lee por bloques de {@code chunk-size} filas:
+ * mientras un bloque se escribe, el siguiente se valida y se le calculan los identificadores en paralelo,
+ * de modo que nunca hay más de tres bloques en memoria. Cada bloque se deduplica contra la base con una
+ * sola consulta y se inserta en su propia transacción junto con su auditoría, en lotes JDBC.
+ */
+@Service
+@Slf4j
+public class CardImportService {
+
+    static final List<String> HEADER = List.of("pan", "holderName", "documentNumber", "cardType", "phoneNumber");
+
+    private final CardRepository cardRepository;
+    private final AuditService auditService;
+    private final DashboardMetrics dashboardMetrics;
+    private final PanIndex panIndex;
+    private final Validator validator;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final CardImportProperties properties;
+
+    public CardImportService(CardRepository cardRepository,
+                             AuditService auditService,
+                             DashboardMetrics dashboardMetrics,
+                             PanIndex panIndex,
+                             Validator validator,
+                             @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                             PlatformTransactionManager transactionManager,
+                             CardImportProperties properties) {
+        this.cardRepository = cardRepository;
+        this.auditService = auditService;
+        this.dashboardMetrics = dashboardMetrics;
+        this.panIndex = panIndex;
+        this.validator = validator;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public CardImportResponse importCsv(InputStream input) {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(properties.getMaxReportedRejects());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16)) {
+            readHeader(reader);
+            long[] lineNumber = {1};
+
+            CompletableFuture<PreparedChunk> pending = null;
+            List<RawRow> rows = readChunk(reader, lineNumber);
+            while (!rows.isEmpty()) {
+                CompletableFuture<PreparedChunk> next = prepare(rows);
+                if (pending != null) {
+                    write(join(pending), report, start);
+                }
+                pending = next;
+                rows = readChunk(reader, lineNumber);
+            }
+            if (pending != null) {
+                write(join(pending), report, start);
+            }
+        } catch (IOException e) {
+            throw new CardImportException("Could not read import file", e);
+        }
+
+        long durationMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Importación finalizada: {} filas, {} importadas, {} rechazadas en {} ms",
+                report.totalRows, report.imported, report.rejected, durationMillis);
+
+        return CardImportResponse.builder()
+                .totalRows(report.totalRows)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .durationMillis(durationMillis)
+                .cardsPerSecond(report.imported * 1000.0 / durationMillis)
+                .rejects(report.rejects)
+                .rejectsTruncated(report.rejected > report.rejects.size())
+                .build();
+    }
+
+    private void readHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new CardImportException("Import file is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = CsvLineParser.parse(header).stream().map(String::trim).toList();
+        if (!columns.equals(HEADER)) {
+            throw new CardImportException("Invalid header, expected: " + String.join(",", HEADER));
+        }
+    }
+
+    private List<RawRow> readChunk(BufferedReader reader, long[] lineNumber) throws IOException {
+        List<RawRow> rows = new ArrayList<>(properties.getChunkSize());
+        String line;
+        while (rows.size() < properties.getChunkSize() && (line = reader.readLine()) != null) {
+            lineNumber[0]++;
+            if (!line.isBlank()) {
+                rows.add(new RawRow(lineNumber[0], line));
+            }
+        }
+        return rows;
+    }
+
+    private CompletableFuture<PreparedChunk> prepare(List<RawRow> rows) {
+        int parallelism = Math.max(1, Math.min(properties.getHashParallelism(), rows.size()));
+        int sliceSize = (rows.size() + parallelism - 1) / parallelism;
+
+        List<CompletableFuture<PreparedChunk>> slices = new ArrayList<>(parallelism);
+        for (int from = 0; from < rows.size(); from += sliceSize) {
+            List<RawRow> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> prepareSlice(slice), executor));
+        }
+
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    PreparedChunk chunk = new PreparedChunk(rows.size());
+                    slices.forEach(slice -> chunk.addAll(slice.join()));
+                    return chunk;
+                });
+    }
+
+    private PreparedChunk prepareSlice(List<RawRow> rows) {
+        PreparedChunk slice = new PreparedChunk(rows.size());
+        List<Long> lineNumbers = new ArrayList<>(rows.size());
+        List<CreateCardRequest> requests = new ArrayList<>(rows.size());
+        for (RawRow row : rows) {
+            CreateCardRequest request;
+            try {
+                request = toRequest(CsvLineParser.parse(row.line));
+            } catch (IllegalArgumentException e) {
+                slice.rejects.add(new CardImportReject(row.lineNumber, null, e.getMessage()));
+                continue;
+            }
+
+            Set<ConstraintViolation<CreateCardRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String reason = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                slice.rejects.add(new CardImportReject(row.lineNumber, CardUtils.maskPan(request.getPan()), reason));
+                continue;
+            }
+
+            lineNumbers.add(row.lineNumber);
+            requests.add(request);
+        }
+
+        // Identificadores de todas las filas válidas del tramo con el mismo digest
+        List<String> identifiers = CardUtils.generateIdentifiers(
+                requests.stream().map(CreateCardRequest::getPan).toList(),
+                requests.stream().map(CreateCardRequest::getDocumentNumber).toList());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateCardRequest request = requests.get(i);
+            slice.cards.add(new PreparedCard(lineNumbers.get(i), Card.builder()
+                    .identifier(identifiers.get(i))
+                    .pan(request.getPan())
+                    .panHash(panIndex.hash(request.getPan()))
+                    .holderName(request.getHolderName())
+                    .documentNumber(request.getDocumentNumber())
+                    .cardType(request.getCardType())
+                    .phoneNumber(request.getPhoneNumber())
+                    .status(CardStatus.CREATED)
+                    .validationNumber(CardUtils.generateValidationNumber())
+                    .build()));
+        }
+        return slice;
+    }
+
+    private CreateCardRequest toRequest(List<String> fields) {
+        if (fields.size() != HEADER.size()) {
+            throw new IllegalArgumentException("Expected " + HEADER.size() + " columns but found " + fields.size());
+        }
+        CardType cardType;
+        try {
+            cardType = CardType.valueOf(fields.get(3).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid card type: " + fields.get(3));
+        }
+        String phoneNumber = fields.get(4).trim();
+        return CreateCardRequest.builder()
+                .pan(fields.get(0).trim())
+                .holderName(fields.get(1).trim())
+                .documentNumber(fields.get(2).trim())
+                .cardType(cardType)
+                .phoneNumber(phoneNumber.isEmpty() ? null : phoneNumber)
+                .build();
+    }
+
+    private void write(PreparedChunk chunk, ImportReport report, long start) {
+        report.totalRows += chunk.cards.size() + chunk.rejects.size();
+        chunk.rejects.forEach(report::reject);
+
+        // Duplicados dentro del bloque: gana la primera aparición
+        Map<String, PreparedCard> byPanHash = new LinkedHashMap<>();
+        for (PreparedCard prepared : chunk.cards) {
+            if (byPanHash.putIfAbsent(prepared.card.getPanHash(), prepared) != null) {
+                report.reject(prepared, "Duplicate PAN in file");
+            }
+        }
+
+        // Sólo los posibles duplicados según el filtro de PAN se confirman en la base. Los bloques
+        // anteriores ya están confirmados, así que también se detectan duplicados entre bloques
+        List<String> candidates = byPanHash.keySet().stream().filter(panIndex::mightExist).toList();
+        if (!candidates.isEmpty()) {
+            Set<String> existing = new HashSet<>(cardRepository.findExistingPanHashes(candidates));
+            existing.forEach(panHash -> report.reject(byPanHash.remove(panHash), "Card with this PAN already exists"));
+        }
+
+        List<PreparedCard> toInsert = new ArrayList<>(byPanHash.values());
+        if (!toInsert.isEmpty()) {
+            try {
+                insert(toInsert);
+                report.imported += toInsert.size();
+            } catch (DataIntegrityViolationException e) {
+                // Otra carga insertó alguna de estas tarjetas entre la consulta y el INSERT
+                log.warn("Conflicto de integridad en bloque de importación, reintentando fila a fila: {}", e.getMessage());
+                insertOneByOne(toInsert, report);
+            }
+        }
+
+        double seconds = Math.max(1, System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Importación en curso: {} filas leídas, {} importadas, {} rechazadas ({} tarjetas/s)",
+                report.totalRows, report.imported, report.rejected, Math.round(report.imported / seconds));
+    }
+
+    private void insert(List<PreparedCard> cards) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Card> entities = cards.stream().map(prepared -> prepared.card).toList();
+            cardRepository.saveAll(entities);
+            entities.forEach(card -> panIndex.add(card.getPanHash()));
+            dashboardMetrics.cardsCreated(entities.size());
+
+            Map<String, String> descriptions = new LinkedHashMap<>(entities.size() * 2);
+            entities.forEach(card -> descriptions.put(card.getIdentifier(),
+                    "Card imported with PAN: " + CardUtils.maskPan(card.getPan())));
+            auditService.logActions("IMPORT", "Card", descriptions);
+        });
+    }
+
+    private void insertOneByOne(List<PreparedCard> cards, ImportReport report) {
+        for (PreparedCard prepared : cards) {
+            prepared.card.setId(null);
+            prepared.card.setVersion(null);
+            try {
+                insert(List.of(prepared));
+                report.imported++;
+            } catch (DataIntegrityViolationException e) {
+                report.reject(prepared, "Card with this PAN already exists");
+            }
+        }
+    }
+
+    private static PreparedChunk join(CompletableFuture<PreparedChunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class RawRow {
+        private final long lineNumber;
+        private final String line;
+    }
+
+    @AllArgsConstructor
+    private static final class PreparedCard {
+        private final long lineNumber;
+        private final Card card;
+    }
+
+    private static final class PreparedChunk {
+        private final List<PreparedCard> cards;
+        private final List<CardImportReject> rejects = new ArrayList<>();
+
+        private PreparedChunk(int capacity) {
+            this.cards = new ArrayList<>(capacity);
+        }
+
+        private void addAll(PreparedChunk other) {
+            cards.addAll(other.cards);
+            rejects.addAll(other.rejects);
+        }
+    }
+
+    private static final class ImportReport {
+        private final int maxReportedRejects;
+        private final List<CardImportReject> rejects = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long rejected;
+
+        private ImportReport(int maxReportedRejects) {
+            this.maxReportedRejects = maxReportedRejects;
+        }
+
+        private void reject(PreparedCard prepared, String reason) {
+            reject(new CardImportReject(prepared.lineNumber, CardUtils.maskPan(prepared.card.getPan()), reason));
+        }
+
+        private void reject(CardImportReject reject) {
+            rejected++;
+            if (rejects.size() < maxReportedRejects) {
+                rejects.add(reject);
+            }
+        }
+    }
+}
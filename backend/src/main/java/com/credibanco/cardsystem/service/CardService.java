@@ -7,12 +7,21 @@ import com.credibanco.cardsystem.model.Card;
 import com.credibanco.cardsystem.model.CardStatus;
 import com.credibanco.cardsystem.repository.CardRepository;
 import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,19 +30,63 @@ public class CardService {
 
     private final CardRepository cardRepository;
     private final AuditService auditService;
+    private final CardCache cardCache;
+    private final CardConcurrencyGuard concurrencyGuard;
+    private final DashboardMetrics dashboardMetrics;
+    private final PanIndex panIndex;
+    private final EntityManager entityManager;
 
-    @Transactional
+    @Timed(value = "card.service", histogram = true)
     public CreateCardResponse createCard(CreateCardRequest request) {
-        if (cardRepository.existsByPan(request.getPan())) {
+        String identifier = CardUtils.generateIdentifier(request.getPan(), request.getDocumentNumber());
+        return concurrencyGuard.execute(identifier, () -> doCreateCard(identifier, request));
+    }
+
+    /**
+     * Respuesta de creación sin el número de validación, tal como se guarda para las repeticiones idempotentes.
+     */
+    public static CreateCardResponse withoutValidationNumber(CreateCardResponse response) {
+        return CreateCardResponse.builder()
+                .identifier(response.getIdentifier())
+                .maskedPan(response.getMaskedPan())
+                .build();
+    }
+
+    /**
+     * Completa una respuesta guardada con el número de validación actual de la tarjeta.
+     */
+    public CreateCardResponse withValidationNumber(CreateCardResponse stored) {
+        Card card = cardRepository.findByIdentifier(stored.getIdentifier())
+                .orElseThrow(() -> new CardNotFoundException("Card not found"));
+        return CreateCardResponse.builder()
+                .identifier(stored.getIdentifier())
+                .maskedPan(stored.getMaskedPan())
+                .validationNumber(card.getValidationNumber())
+                .build();
+    }
+
+    @Timed(value = "card.service", histogram = true)
+    public void enrollCard(EnrollCardRequest request) {
+        concurrencyGuard.run(request.getIdentifier(), () -> doEnrollCard(request));
+    }
+
+    @Timed(value = "card.service", histogram = true)
+    public void deactivateCard(String identifier) {
+        concurrencyGuard.run(identifier, () -> doDeactivateCard(identifier));
+    }
+
+    private CreateCardResponse doCreateCard(String identifier, CreateCardRequest request) {
+        String panHash = panIndex.hash(request.getPan());
+        if (panIndex.mightExist(panHash) && cardRepository.existsByPanHash(panHash)) {
             throw new InvalidCardStatusException("Card with this PAN already exists");
         }
 
-        String identifier = CardUtils.generateIdentifier(request.getPan(), request.getDocumentNumber());
         String validationNumber = CardUtils.generateValidationNumber();
 
         Card card = Card.builder()
                 .identifier(identifier)
                 .pan(request.getPan())
+                .panHash(panHash)
                 .holderName(request.getHolderName())
                 .documentNumber(request.getDocumentNumber())
                 .cardType(request.getCardType())
@@ -43,7 +96,9 @@ public class CardService {
                 .build();
 
         Card savedCard = cardRepository.save(card);
-        
+        panIndex.add(panHash);
+        dashboardMetrics.cardsCreated(1);
+
         auditService.logAction(
                 "CREATE",
                 "Card",
@@ -60,8 +115,7 @@ public class CardService {
                 .build();
     }
 
-    @Transactional
-    public void enrollCard(EnrollCardRequest request) {
+    private void doEnrollCard(EnrollCardRequest request) {
         Card card = cardRepository.findByIdentifier(request.getIdentifier())
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
@@ -75,6 +129,8 @@ public class CardService {
 
         card.setStatus(CardStatus.ENROLLED);
         cardRepository.save(card);
+        cardCache.invalidate(card.getIdentifier());
+        dashboardMetrics.cardStatusChanged(CardStatus.CREATED, CardStatus.ENROLLED);
 
         auditService.logAction(
                 "ENROLL",
@@ -86,24 +142,15 @@ public class CardService {
         log.info("Card enrolled with identifier: {}", request.getIdentifier());
     }
 
+    /**
+     * Detalles desde el caché: un cambio de estado hecho en otro nodo puede tardar hasta el TTL en verse.
+     */
+    @Timed(value = "card.service", histogram = true)
     public CardDetailsResponse getCardDetails(String identifier) {
-        Card card = cardRepository.findByIdentifier(identifier)
-                .orElseThrow(() -> new CardNotFoundException("Card not found"));
-
-        return CardDetailsResponse.builder()
-                .identifier(card.getIdentifier())
-                .maskedPan(CardUtils.maskPan(card.getPan()))
-                .holderName(card.getHolderName())
-                .documentNumber(card.getDocumentNumber())
-                .cardType(card.getCardType())
-                .phoneNumber(card.getPhoneNumber())
-                .status(card.getStatus())
-                .createdAt(card.getCreatedAt())
-                .build();
+        return toDetailsResponse(findByIdentifier(identifier));
     }
 
-    @Transactional
-    public void deactivateCard(String identifier) {
+    private void doDeactivateCard(String identifier) {
         Card card = cardRepository.findByIdentifier(identifier)
                 .orElseThrow(() -> new CardNotFoundException("Card not found"));
 
@@ -111,8 +158,11 @@ public class CardService {
             throw new InvalidCardStatusException("Card is already inactive");
         }
 
+        CardStatus previousStatus = card.getStatus();
         card.setStatus(CardStatus.INACTIVE);
         cardRepository.save(card);
+        cardCache.invalidate(card.getIdentifier());
+        dashboardMetrics.cardStatusChanged(previousStatus, CardStatus.INACTIVE);
 
         auditService.logAction(
                 "DEACTIVATE",
@@ -124,14 +174,50 @@ public class CardService {
         log.info("Card deactivated with identifier: {}", identifier);
     }
 
-    public Card findByIdentifier(String identifier) {
-        return cardRepository.findByIdentifier(identifier)
-                .orElseThrow(() -> new CardNotFoundException("Card not found"));
+    /**
+     * Resuelve la tarjeta desde el caché local; el estado puede no estar al día. Enrolar y desactivar no lo usan:
+     * validan contra la fila confirmada y la escriben con su versión.
+     */
+    public CardCache.Snapshot findByIdentifier(String identifier) {
+        CardCache.Snapshot card = cardCache.get(identifier,
+                key -> cardRepository.findByIdentifier(key).map(CardCache.Snapshot::of).orElse(null));
+        if (card == null) {
+            throw new CardNotFoundException("Card not found");
+        }
+        return card;
     }
 
-    public Card findById(Long id) {
-        return cardRepository.findById(id)
-                .orElseThrow(() -> new CardNotFoundException("Card not found"));
+    /**
+     * Tarjeta para autorizar una compra dentro de la transacción en curso, servida desde el caché. Si está
+     * ENROLLED se confirma con un único UPDATE condicionado a la versión cacheada, que además bloquea la fila
+     * hasta el commit: un cambio de estado de otro nodo ya confirmado hace fallar la compra con un conflicto
+     * optimista, y el reintento, sin la entrada en caché, lee el estado vigente; uno posterior espera a la compra.
+     */
+    public CardCache.Snapshot findForPurchase(String identifier) {
+        CardCache.Snapshot card = findByIdentifier(identifier);
+        if (card.status() == CardStatus.CREATED) {
+            // Puede haberse enrolado en otro nodo: se relee antes de rechazar. INACTIVE es definitivo
+            cardCache.invalidate(identifier);
+            card = findByIdentifier(identifier);
+        }
+        if (card.status() != CardStatus.ENROLLED) {
+            return card;
+        }
+        if (cardRepository.lockIfUnchanged(card.id(), card.version()) == 0) {
+            cardCache.invalidate(identifier);
+            throw new ObjectOptimisticLockingFailureException(Card.class, card.id());
+        }
+        return card;
+    }
+
+    /**
+     * Variante por lotes de {@link #findForPurchase(String)}: lee las tarjetas de la base con una sola consulta
+     * {@code IN} y comprueba su versión al confirmar.
+     */
+    public List<Card> findForPurchase(Collection<String> identifiers) {
+        List<Card> cards = cardRepository.findByIdentifierIn(identifiers);
+        cards.forEach(card -> entityManager.lock(card, LockModeType.OPTIMISTIC));
+        return cards;
     }
 
     public Page<CardDetailsResponse> getAllCards(Pageable pageable) {
@@ -140,7 +226,56 @@ public class CardService {
         
         Page<Card> cardsPage = cardRepository.findAll(pageable);
         
-        Page<CardDetailsResponse> responsePage = cardsPage.map(card -> CardDetailsResponse.builder()
+        Page<CardDetailsResponse> responsePage = cardsPage.map(this::toDetailsResponse);
+        
+        log.info("Obtenidas {} tarjetas de un total de {} en página {}", 
+                responsePage.getNumberOfElements(), responsePage.getTotalElements(), 
+                responsePage.getNumber());
+        
+        return responsePage;
+    }
+
+    public CursorPage<CardDetailsResponse> getCardsAfter(String after, int size) {
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<Card> slice;
+        if (after == null || after.isBlank()) {
+            slice = cardRepository.findFirstSlice(pageable);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            slice = cardRepository.findSliceAfter(cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+
+        List<Card> cards = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Card last = cards.get(cards.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<CardDetailsResponse>builder()
+                .content(cards.stream().map(this::toDetailsResponse).toList())
+                .size(size)
+                .numberOfElements(cards.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private CardDetailsResponse toDetailsResponse(CardCache.Snapshot card) {
+        return CardDetailsResponse.builder()
+                .identifier(card.identifier())
+                .maskedPan(card.maskedPan())
+                .holderName(card.holderName())
+                .documentNumber(card.documentNumber())
+                .cardType(card.cardType())
+                .phoneNumber(card.phoneNumber())
+                .status(card.status())
+                .createdAt(card.createdAt())
+                .build();
+    }
+
+    private CardDetailsResponse toDetailsResponse(Card card) {
+        return CardDetailsResponse.builder()
                 .identifier(card.getIdentifier())
                 .maskedPan(CardUtils.maskPan(card.getPan()))
                 .holderName(card.getHolderName())
@@ -149,12 +284,6 @@ public class CardService {
                 .phoneNumber(card.getPhoneNumber())
                 .status(card.getStatus())
                 .createdAt(card.getCreatedAt())
-                .build());
-        
-        log.info("Obtenidas {} tarjetas de un total de {} en página {}", 
-                responsePage.getNumberOfElements(), responsePage.getTotalElements(), 
-                responsePage.getNumber());
-        
-        return responsePage;
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CustomerViewProperties;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CustomerCardSummary;
+import com.credibanco.cardsystem.dto.CustomerTransactionRow;
+import com.credibanco.cardsystem.dto.CustomerViewResponse;
+import com.credibanco.cardsystem.exception.CustomerNotFoundException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.util.CardUtils;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vista 360 de un cliente por número de documento: sus tarjetas, las transacciones recientes de cada una y
+ * sus totales. Se arma con tres consultas, dentro de una transacción de solo lectura, sin importar cuántas
+ * tarjetas tenga el cliente: las tarjetas del documento y, para sus ids, las recientes (las N primeras de cada
+ * tarjeta en el índice {@code (card_id, created_at)}) y los totales agrupados.
+ */
+@Service
+@Slf4j
+public class CustomerService {
+
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final CustomerViewProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CustomerService(CardRepository cardRepository,
+                           TransactionRepository transactionRepository,
+                           CustomerViewProperties properties,
+                           PlatformTransactionManager transactionManager) {
+        this.cardRepository = cardRepository;
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Timed(value = "customer.service", histogram = true)
+    public CustomerViewResponse getCustomer(String documentNumber) {
+        CustomerViewResponse view = readOnlyTransaction.execute(tx -> load(documentNumber));
+        if (view == null) {
+            throw new CustomerNotFoundException("Customer not found");
+        }
+        return view;
+    }
+
+    private CustomerViewResponse load(String documentNumber) {
+        List<Card> cards = cardRepository.findByDocumentNumberOrderByCreatedAtDesc(documentNumber);
+        if (cards.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, List<CreateTransactionResponse>> recent = new HashMap<>();
+        Map<Long, String> identifiers = new HashMap<>();
+        cards.forEach(card -> identifiers.put(card.getId(), card.getIdentifier()));
+        int limit = properties.getRecentTransactions();
+        for (CustomerTransactionRow row : transactionRepository.findRecentByCardIdIn(identifiers.keySet(), limit - 1)) {
+            List<CreateTransactionResponse> cardRecent = recent.computeIfAbsent(row.cardId(), id -> new ArrayList<>());
+            // Las filas vienen de la más reciente a la más antigua; las empatadas con la última sobran
+            if (cardRecent.size() == limit) {
+                continue;
+            }
+            cardRecent.add(CreateTransactionResponse.builder()
+                    .referenceNumber(row.referenceNumber())
+                    .cardIdentifier(identifiers.get(row.cardId()))
+                    .totalAmount(row.totalAmount())
+                    .purchaseAddress(row.purchaseAddress())
+                    .status(row.status())
+                    .createdAt(row.createdAt())
+                    .build());
+        }
+
+        Map<Long, Map<TransactionStatus, Totals>> totals = new HashMap<>();
+        for (Object[] row : transactionRepository.summarizeByCardIdIn(identifiers.keySet())) {
+            totals.computeIfAbsent((Long) row[0], id -> new EnumMap<>(TransactionStatus.class))
+                    .put((TransactionStatus) row[1], new Totals((Long) row[2], (BigDecimal) row[3]));
+        }
+
+        List<CustomerCardSummary> summaries = new ArrayList<>(cards.size());
+        long totalTransactions = 0;
+        BigDecimal approvedAmount = BigDecimal.ZERO;
+        for (Card card : cards) {
+            Map<TransactionStatus, Totals> byStatus = totals.getOrDefault(card.getId(), Map.of());
+            Totals approved = byStatus.getOrDefault(TransactionStatus.APPROVED, Totals.NONE);
+            long cardTransactions = byStatus.values().stream().mapToLong(Totals::count).sum();
+            summaries.add(CustomerCardSummary.builder()
+                    .identifier(card.getIdentifier())
+                    .maskedPan(CardUtils.maskPan(card.getPan()))
+                    .cardType(card.getCardType())
+                    .phoneNumber(card.getPhoneNumber())
+                    .status(card.getStatus())
+                    .createdAt(card.getCreatedAt())
+                    .totalTransactions(cardTransactions)
+                    .approvedTransactions(approved.count())
+                    .rejectedTransactions(byStatus.getOrDefault(TransactionStatus.REJECTED, Totals.NONE).count())
+                    .cancelledTransactions(byStatus.getOrDefault(TransactionStatus.CANCELLED, Totals.NONE).count())
+                    .approvedAmount(approved.amount())
+                    .recentTransactions(recent.getOrDefault(card.getId(), List.of()))
+                    .build());
+            totalTransactions += cardTransactions;
+            approvedAmount = approvedAmount.add(approved.amount());
+        }
+
+        log.debug("Vista de cliente armada: {} tarjetas, {} transacciones", cards.size(), totalTransactions);
+        return CustomerViewResponse.builder()
+                .documentNumber(documentNumber)
+                .holderName(cards.get(0).getHolderName())
+                .totalCards(cards.size())
+                .totalTransactions(totalTransactions)
+                .approvedAmount(approvedAmount)
+                .cards(summaries)
+                .build();
+    }
+
+    private record Totals(long count, BigDecimal amount) {
+        static final Totals NONE = new Totals(0, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,296 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.DashboardMetricsProperties;
+import com.credibanco.cardsystem.dto.DashboardMetricsResponse;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Métricas del tablero ({@code sql/queries.sql}, consulta 2) mantenidas en memoria: se cargan una vez
+ * desde la base al arrancar y luego cada servicio aplica el delta de sus cambios de estado al confirmar
+ * la transacción, de modo que leerlas no toca la base.
+ * <p>
+ * Una reconciliación periódica vuelve a contar en la base y reemplaza los contadores. Sólo se aplica si
+ * ninguna transacción con deltas pendientes confirmó durante la consulta; si no, se reintenta en la
+ * siguiente ronda, porque no se sabría si esos cambios ya están incluidos en el conteo.
+ * <p>
+ * Los mismos deltas alimentan los contadores de Micrometer {@code transactions.volume} y
+ * {@code transactions.amount} por estado; éstos sólo crecen y la reconciliación no los toca.
+ */
+@Service
+@Slf4j
+public class DashboardMetrics {
+
+    private final CardRepository cardRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DashboardMetricsProperties properties;
+
+    private final Map<CardStatus, AtomicLong> cardsByStatus = new EnumMap<>(CardStatus.class);
+    private final Map<TransactionStatus, AtomicLong> transactionsByStatus = new EnumMap<>(TransactionStatus.class);
+    private final Map<TransactionStatus, Counter> volumeCounters = new EnumMap<>(TransactionStatus.class);
+    // Las compras rechazadas no mueven dinero: sólo se cuentan
+    private final Map<TransactionStatus, Counter> amountCounters = new EnumMap<>(TransactionStatus.class);
+    private final AtomicReference<BigDecimal> approvedAmount = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicReference<DailyCount> today = new AtomicReference<>(new DailyCount(LocalDate.now(), 0));
+
+    // Transacciones entre beforeCommit y afterCompletion, y deltas aplicados: detectan cambios durante la reconciliación
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    // Los deltas se aplican con el cerrojo de lectura; la reconciliación reemplaza los valores con el de escritura
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardMetrics(CardRepository cardRepository,
+                            TransactionRepository transactionRepository,
+                            PlatformTransactionManager transactionManager,
+                            DashboardMetricsProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        for (CardStatus status : CardStatus.values()) {
+            cardsByStatus.put(status, new AtomicLong());
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            transactionsByStatus.put(status, new AtomicLong());
+            String tag = status.name().toLowerCase();
+            volumeCounters.put(status, Counter.builder("transactions.volume")
+                    .description("Transacciones confirmadas por estado")
+                    .tag("status", tag)
+                    .register(meterRegistry));
+            if (status != TransactionStatus.REJECTED) {
+                amountCounters.put(status, Counter.builder("transactions.amount")
+                        .description("Monto de las transacciones confirmadas por estado")
+                        .tag("status", tag)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    public void cardsCreated(long count) {
+        onCommit(() -> cardsByStatus.get(CardStatus.CREATED).addAndGet(count));
+    }
+
+    public void cardStatusChanged(CardStatus from, CardStatus to) {
+        onCommit(() -> {
+            cardsByStatus.get(from).decrementAndGet();
+            cardsByStatus.get(to).incrementAndGet();
+        });
+    }
+
+    public void transactionsApproved(long count, BigDecimal amount) {
+        onCommit(() -> {
+            transactionsByStatus.get(TransactionStatus.APPROVED).addAndGet(count);
+            approvedAmount.accumulateAndGet(amount, BigDecimal::add);
+            countToday(count);
+            volumeCounters.get(TransactionStatus.APPROVED).increment(count);
+            amountCounters.get(TransactionStatus.APPROVED).increment(amount.doubleValue());
+        });
+    }
+
+    public void transactionsRejected(long count) {
+        onCommit(() -> {
+            transactionsByStatus.get(TransactionStatus.REJECTED).addAndGet(count);
+            countToday(count);
+            volumeCounters.get(TransactionStatus.REJECTED).increment(count);
+        });
+    }
+
+    public void transactionCancelled(BigDecimal amount) {
+        onCommit(() -> {
+            transactionsByStatus.get(TransactionStatus.APPROVED).decrementAndGet();
+            transactionsByStatus.get(TransactionStatus.CANCELLED).incrementAndGet();
+            approvedAmount.accumulateAndGet(amount, BigDecimal::subtract);
+            volumeCounters.get(TransactionStatus.CANCELLED).increment();
+            amountCounters.get(TransactionStatus.CANCELLED).increment(amount.doubleValue());
+        });
+    }
+
+    public DashboardMetricsResponse snapshot() {
+        Map<CardStatus, Long> cards = new EnumMap<>(CardStatus.class);
+        cardsByStatus.forEach((status, count) -> cards.put(status, count.get()));
+        long totalTransactions = transactionsByStatus.values().stream().mapToLong(AtomicLong::get).sum();
+        DailyCount daily = today.get();
+
+        return DashboardMetricsResponse.builder()
+                .totalCards(cards.values().stream().mapToLong(Long::longValue).sum())
+                .cardsByStatus(Collections.unmodifiableMap(cards))
+                .totalTransactions(totalTransactions)
+                .approvedTransactions(transactionsByStatus.get(TransactionStatus.APPROVED).get())
+                .cancelledTransactions(transactionsByStatus.get(TransactionStatus.CANCELLED).get())
+                .approvedAmount(approvedAmount.get())
+                .transactionsToday(daily.day.equals(LocalDate.now()) ? daily.count.get() : 0)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "#{@dashboardMetricsProperties.reconcileInterval.toMillis()}",
+            fixedDelayString = "#{@dashboardMetricsProperties.reconcileInterval.toMillis()}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= properties.getReconcileAttempts(); attempt++) {
+            if (tryReconcile()) {
+                return;
+            }
+        }
+        log.warn("Reconciliación de métricas del tablero omitida: hubo escrituras concurrentes en {} intentos",
+                properties.getReconcileAttempts());
+    }
+
+    boolean tryReconcile() {
+        long appliedBefore = applied.get();
+        if (inFlight.get() > 0) {
+            return false;
+        }
+
+        LocalDate day = LocalDate.now();
+        Counts counts = readOnlyTransaction.execute(status -> load(day));
+
+        lock.writeLock().lock();
+        try {
+            if (inFlight.get() > 0 || applied.get() != appliedBefore) {
+                return false;
+            }
+            long drift = replace(counts, day);
+            reconciledAt = LocalDateTime.now();
+            if (drift != 0) {
+                log.warn("Métricas del tablero reconciliadas con una desviación de {} registros", drift);
+            } else {
+                log.debug("Métricas del tablero reconciliadas sin desviación");
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Counts load(LocalDate day) {
+        Counts counts = new Counts();
+        for (Object[] row : cardRepository.countByStatus()) {
+            counts.cards.put((CardStatus) row[0], (Long) row[1]);
+        }
+        for (Object[] row : transactionRepository.summarizeByStatus()) {
+            TransactionStatus status = (TransactionStatus) row[0];
+            counts.transactions.put(status, (Long) row[1]);
+            if (status == TransactionStatus.APPROVED) {
+                counts.approvedAmount = (BigDecimal) row[2];
+            }
+        }
+        counts.today = transactionRepository.countCreatedBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        return counts;
+    }
+
+    private long replace(Counts counts, LocalDate day) {
+        long drift = 0;
+        for (CardStatus status : CardStatus.values()) {
+            drift += Math.abs(cardsByStatus.get(status).getAndSet(counts.cards.getOrDefault(status, 0L))
+                    - counts.cards.getOrDefault(status, 0L));
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            drift += Math.abs(transactionsByStatus.get(status).getAndSet(counts.transactions.getOrDefault(status, 0L))
+                    - counts.transactions.getOrDefault(status, 0L));
+        }
+        approvedAmount.set(counts.approvedAmount);
+        today.set(new DailyCount(day, counts.today));
+        return drift;
+    }
+
+    private void countToday(long count) {
+        LocalDate day = LocalDate.now();
+        DailyCount daily = today.updateAndGet(current -> current.day.isBefore(day) ? new DailyCount(day, 0) : current);
+        if (daily.day.equals(day)) {
+            daily.count.addAndGet(count);
+        }
+    }
+
+    /**
+     * Aplica el delta sólo si la transacción actual confirma; sin transacción se aplica de inmediato.
+     */
+    private void onCommit(Runnable delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Un rollback no pasa por beforeCommit
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inFlight.incrementAndGet();
+                committing = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(delta);
+                    }
+                } finally {
+                    if (committing) {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    private void apply(Runnable delta) {
+        lock.readLock().lock();
+        try {
+            delta.run();
+            applied.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class DailyCount {
+        private final LocalDate day;
+        private final AtomicLong count;
+
+        private DailyCount(LocalDate day, long count) {
+            this.day = day;
+            this.count = new AtomicLong(count);
+        }
+    }
+
+    private static final class Counts {
+        private final Map<CardStatus, Long> cards = new EnumMap<>(CardStatus.class);
+        private final Map<TransactionStatus, Long> transactions = new EnumMap<>(TransactionStatus.class);
+        private BigDecimal approvedAmount = BigDecimal.ZERO;
+        private long today;
+    }
+}
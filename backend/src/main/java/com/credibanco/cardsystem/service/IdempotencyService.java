@@ -0,0 +1,294 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.IdempotencyProperties;
+import com.credibanco.cardsystem.exception.ConcurrentUpdateException;
+import com.credibanco.cardsystem.exception.IdempotencyKeyMismatchException;
+import com.credibanco.cardsystem.model.IdempotencyRecord;
+import com.credibanco.cardsystem.model.IdempotencyStatus;
+import com.credibanco.cardsystem.repository.IdempotencyRecordRepository;
+import com.credibanco.cardsystem.util.PanHasher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cabecera {@code Idempotency-Key}: antes de ejecutar la operación la clave se reserva con una fila PENDING
+ * en {@code idempotency_keys}, insertada en su propia transacción bajo {@code uk_idempotency_scope_key};
+ * al terminar, la fila pasa a COMPLETED con la respuesta, que también queda en una caché acotada con TTL.
+ * Los reintentos, en esta u otra instancia, reciben esa respuesta sin volver a ejecutar la operación. Un
+ * duplicado que llega mientras la original sigue en curso espera su resultado: en la misma instancia sobre
+ * la petición en curso, y en otra consultando la fila.
+ * <p>
+ * Un error libera la clave para un reintento. Si la instancia cae con la clave reservada, la fila queda
+ * PENDING y los reintentos reciben un conflicto hasta que vence: no se sabe si la operación se confirmó.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final PanHasher panHasher;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate ownTransaction;
+    // Sólo peticiones en curso: se retiran al terminar y nunca se desalojan por tamaño
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PanHasher panHasher,
+                              IdempotencyProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.panHasher = panHasher;
+        this.properties = properties;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    /**
+     * Ejecuta {@code work} una sola vez por {@code scope} y {@code idempotencyKey}; sin clave, siempre.
+     */
+    public <T> Result<T> execute(String scope, String idempotencyKey, Object request,
+                                 Class<T> responseType, Supplier<T> work) {
+        return execute(scope, idempotencyKey, request, responseType, work, UnaryOperator.identity(),
+                UnaryOperator.identity());
+    }
+
+    /**
+     * Como {@link #execute(String, String, Object, Class, Supplier)}, pero la respuesta se guarda tal como
+     * la deja {@code toStored} y cada repetición pasa por {@code fromStored}: así un dato sensible no se copia
+     * a la tabla y se recupera de su origen al repetir.
+     */
+    public <T> Result<T> execute(String scope, String idempotencyKey, Object request, Class<T> responseType,
+                                 Supplier<T> work, UnaryOperator<T> toStored, UnaryOperator<T> fromStored) {
+        if (idempotencyKey == null || !properties.isEnabled()) {
+            return new Result<>(work.get(), false);
+        }
+
+        String requestHash = fingerprint(request);
+        String cacheKey = scope + ':' + idempotencyKey;
+        StoredResponse cached = completed.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType, fromStored);
+        }
+
+        CompletableFuture<StoredResponse> owned = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, owned);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType, fromStored);
+        }
+
+        try {
+            Reservation reservation;
+            try {
+                reservation = reserve(scope, idempotencyKey, requestHash);
+            } catch (RuntimeException e) {
+                owned.completeExceptionally(e);
+                throw e;
+            }
+            if (reservation.stored() != null) {
+                completed.put(cacheKey, reservation.stored());
+                owned.complete(reservation.stored());
+                return replay(reservation.stored(), requestHash, responseType, fromStored);
+            }
+
+            T response;
+            try {
+                response = work.get();
+            } catch (RuntimeException e) {
+                release(reservation.id());
+                owned.completeExceptionally(e);
+                throw e;
+            }
+
+            StoredResponse stored = new StoredResponse(requestHash, toJson(toStored.apply(response)));
+            complete(scope, idempotencyKey, reservation.id(), stored);
+            completed.put(cacheKey, stored);
+            owned.complete(stored);
+            return new Result<>(response, false);
+        } finally {
+            inFlight.remove(cacheKey, owned);
+        }
+    }
+
+    @Scheduled(initialDelayString = "#{@idempotencyProperties.purgeInterval.toMillis()}",
+            fixedDelayString = "#{@idempotencyProperties.purgeInterval.toMillis()}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(properties.getTtl()));
+        if (purged > 0) {
+            log.debug("Claves de idempotencia vencidas eliminadas: {}", purged);
+        }
+    }
+
+    void clearMemory() {
+        completed.invalidateAll();
+    }
+
+    /**
+     * Reserva la clave con una fila PENDING. Si ya existe, devuelve su respuesta cuando está completa o espera a
+     * que la instancia que la reservó termine; si esa instancia falla, la fila desaparece y se vuelve a intentar.
+     */
+    private Reservation reserve(String scope, String idempotencyKey, String requestHash) {
+        long deadline = System.nanoTime() + properties.getInFlightTimeout().toNanos();
+        boolean insert = true;
+        while (true) {
+            if (insert) {
+                Optional<Long> reserved = tryInsertPending(scope, idempotencyKey, requestHash);
+                if (reserved.isPresent()) {
+                    return new Reservation(reserved.get(), null);
+                }
+            }
+
+            Optional<IdempotencyRecord> found = repository.findByScopeAndIdempotencyKey(scope, idempotencyKey);
+            // Sólo se vuelve a insertar si la fila desapareció; mientras exista se consulta
+            insert = found.isEmpty();
+            if (found.isPresent()) {
+                IdempotencyRecord record = found.get();
+                LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTtl());
+                if (record.getCreatedAt().isBefore(cutoff)) {
+                    // Vencida pero aún no purgada: se libera y se vuelve a reservar
+                    repository.deleteIfCreatedBefore(record.getId(), cutoff);
+                    insert = true;
+                    continue;
+                }
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyMismatchException("Idempotency-Key was already used with a different request");
+                }
+                if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                    return new Reservation(record.getId(), new StoredResponse(record.getRequestHash(), record.getResponseBody()));
+                }
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new ConcurrentUpdateException("A request with the same Idempotency-Key is still in progress");
+            }
+            pause();
+        }
+    }
+
+    private Optional<Long> tryInsertPending(String scope, String idempotencyKey, String requestHash) {
+        try {
+            return Optional.of(ownTransaction.execute(status -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .scope(scope)
+                    .idempotencyKey(idempotencyKey)
+                    .requestHash(requestHash)
+                    .status(IdempotencyStatus.PENDING)
+                    .build()).getId()));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void complete(String scope, String idempotencyKey, Long id, StoredResponse stored) {
+        try {
+            ownTransaction.executeWithoutResult(status ->
+                    repository.complete(id, IdempotencyStatus.COMPLETED, stored.body()));
+        } catch (DataAccessException e) {
+            // La operación ya se confirmó: la fila queda PENDING y los reintentos en otras instancias reciben un
+            // conflicto en lugar de repetirla
+            log.warn("No se pudo completar la clave de idempotencia {}:{}: {}", scope, idempotencyKey, e.getMessage());
+        }
+    }
+
+    private void release(Long id) {
+        try {
+            ownTransaction.executeWithoutResult(status -> repository.deleteById(id));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo liberar la clave de idempotencia {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getInFlightPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConcurrentUpdateException("A request with the same Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for a request with the same Idempotency-Key");
+        }
+    }
+
+    private <T> Result<T> replay(StoredResponse stored, String requestHash, Class<T> responseType,
+                                 UnaryOperator<T> fromStored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used with a different request");
+        }
+        try {
+            return new Result<>(fromStored.apply(objectMapper.readValue(stored.body(), responseType)), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    // El cuerpo puede llevar el PAN: la huella es un HMAC y no un hash que pueda recorrerse sin la clave
+    private String fingerprint(Object request) {
+        try {
+            return panHasher.hash(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+
+    public record Result<T>(T response, boolean replayed) {
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+
+    // id de la fila reservada; stored sólo si la clave ya estaba completa
+    private record Reservation(Long id, StoredResponse stored) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.PanHashProperties;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.util.BloomFilter;
+import com.credibanco.cardsystem.util.PanHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Filtro en memoria de los PAN ya registrados, por su hash ({@code cards.pan_hash}). Responde "seguro que
+ * es nuevo" sin tocar la base; sólo una posible coincidencia se confirma con una consulta por el índice
+ * único de {@code pan_hash}. Se reconstruye al arrancar, tras completar el hash de las filas que no lo
+ * tengan; hasta entonces toda consulta va a la base.
+ * <p>
+ * Cada instancia conoce sus propias altas: una tarjeta creada en otro nodo puede pasar el filtro, y en
+ * ese caso el índice único rechaza el INSERT.
+ */
+@Service
+@Slf4j
+public class PanIndex {
+
+    private static final int BACKFILL_CHUNK = 1000;
+
+    private final CardRepository cardRepository;
+    private final PanHasher panHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final PanHashProperties properties;
+    private final BloomFilter filter;
+    private final Counter definitelyNew;
+    private final Counter possibleMatches;
+    private volatile boolean ready;
+
+    public PanIndex(CardRepository cardRepository,
+                    PanHasher panHasher,
+                    PlatformTransactionManager transactionManager,
+                    PanHashProperties properties,
+                    MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.panHasher = panHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.filter = new BloomFilter(properties.getExpectedCards(), properties.getFalsePositiveRate());
+        this.definitelyNew = meterRegistry.counter("card.pan.filter", "result", "new");
+        this.possibleMatches = meterRegistry.counter("card.pan.filter", "result", "possible-match");
+    }
+
+    public String hash(String pan) {
+        return panHasher.hash(pan);
+    }
+
+    /**
+     * {@code false} si el PAN seguro no está registrado; {@code true} si hay que confirmarlo en la base.
+     */
+    public boolean mightExist(String panHash) {
+        boolean possible = !ready || filter.mightContain(panHash);
+        (possible ? possibleMatches : definitelyNew).increment();
+        return possible;
+    }
+
+    /**
+     * Registra un PAN al insertarlo. Si la transacción se revierte sólo queda un falso positivo.
+     */
+    public void add(String panHash) {
+        filter.put(panHash);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long backfilled = backfill();
+        AtomicLong loaded = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> hashes = cardRepository.streamPanHashes()) {
+                hashes.forEach(panHash -> {
+                    filter.put(panHash);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        ready = true;
+
+        log.info("Filtro de PAN reconstruido: {} tarjetas ({} hashes completados), {} KB",
+                loaded.get(), backfilled, filter.sizeInBytes() / 1024);
+        if (loaded.get() > properties.getExpectedCards()) {
+            log.warn("El filtro de PAN supera su capacidad ({} > {}): aumentar app.pan-hash.expected-cards",
+                    loaded.get(), properties.getExpectedCards());
+        }
+    }
+
+    private long backfill() {
+        long total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Object[]> rows = cardRepository.findWithoutPanHash(PageRequest.of(0, BACKFILL_CHUNK));
+                rows.forEach(row -> cardRepository.updatePanHash((Long) row[0], panHasher.hash((String) row[1])));
+                return rows.size();
+            });
+            total += updated;
+            if (updated < BACKFILL_CHUNK) {
+                return total;
+            }
+        }
+    }
+}
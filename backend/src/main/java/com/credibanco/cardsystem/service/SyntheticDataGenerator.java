@@ -0,0 +1,300 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.SyntheticDataProperties;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.PooledSequenceGenerator;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.ReferenceNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de datos sintéticos a escala: N tarjetas y M transacciones por tarjeta en promedio, con una
+ * fracción de tarjetas "calientes" que concentra buena parte de las compras y fechas repartidas en meses.
+ * <p>
+ * Los ids se reservan por rangos en las secuencias agrupadas ({@code cards_seq}, {@code transactions_seq}),
+ * así que las filas se escriben con INSERT por lotes JDBC sin pasar por Hibernate, en bloques de
+ * {@code chunk-size} filas confirmados cada uno en su transacción y escritos en paralelo. Primero todas las
+ * tarjetas y luego las transacciones, que sólo necesitan el rango de ids de tarjeta para respetar la FK.
+ * <p>
+ * Cada bloque usa su propia semilla derivada de {@code seed}: el contenido no depende del reparto entre
+ * hilos. La reserva de ids en H2 no es atómica frente a altas concurrentes; está pensado para cargar una
+ * base sin tráfico (arranque, preparación de benchmarks y pruebas de carga). Las filas generadas no se
+ * auditan.
+ */
+@Service
+@Slf4j
+public class SyntheticDataGenerator {
+
+    // BIN reservado para datos sintéticos: no coincide con PAN reales de prueba
+    static final String PAN_PREFIX = "999";
+    private static final long MIN_AMOUNT_CENTS = 1_000L;
+    private static final long MAX_AMOUNT_CENTS = 500_000_000L;
+    private static final long CARD_STREAM = 0x5EED_CA4DL;
+    private static final long TRANSACTION_STREAM = 0x5EED_7A11L;
+
+    private static final String INSERT_CARD = "insert into cards (id, identifier, pan, pan_hash, holder_name, "
+            + "document_number, card_type, phone_number, status, validation_number, created_at, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_TRANSACTION = "insert into transactions (id, reference_number, card_id, "
+            + "total_amount, purchase_address, status, created_at, version) values (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String[] FIRST_NAMES = {
+            "Juan", "María", "Carlos", "Ana", "Luis", "Carmen", "José", "Lucía", "Miguel", "Elena",
+            "David", "Patricia", "Antonio", "Isabel", "Francisco", "Rosa", "Manuel", "Pilar", "Rafael", "Cristina"
+    };
+    private static final String[] LAST_NAMES = {
+            "Pérez", "González", "Rodríguez", "Martínez", "García", "López", "Hernández", "Sánchez", "Torres", "Ruiz",
+            "Morales", "Jiménez", "Álvarez", "Romero", "Navarro", "Serrano", "Blanco", "Castro", "Ortega", "Delgado"
+    };
+    private static final String[] ADDRESSES = {
+            "Centro Comercial Andino, Bogotá", "Plaza de Bolívar, Medellín", "Zona Rosa, Cali",
+            "Centro Histórico, Cartagena", "Parque 93, Bogotá", "El Poblado, Medellín",
+            "San Antonio, Cali", "Getsemaní, Cartagena", "Chapinero, Bogotá", "Laureles, Medellín",
+            "Granada, Cali", "Bocagrande, Cartagena", "La Candelaria, Bogotá", "Envigado, Medellín",
+            "Ciudad Jardín, Cali", "Manga, Cartagena", "Usaquén, Bogotá", "Sabaneta, Medellín",
+            "Versalles, Cali", "Pie de la Popa, Cartagena"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PanIndex panIndex;
+    private final DashboardMetrics dashboardMetrics;
+    private final ReferenceNumberGenerator referenceNumberGenerator;
+    private final AsyncTaskExecutor executor;
+    private final SyntheticDataProperties properties;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  PanIndex panIndex,
+                                  DashboardMetrics dashboardMetrics,
+                                  ReferenceNumberGenerator referenceNumberGenerator,
+                                  @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                  SyntheticDataProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.panIndex = panIndex;
+        this.dashboardMetrics = dashboardMetrics;
+        this.referenceNumberGenerator = referenceNumberGenerator;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    public Result generate() {
+        return generate(properties.getCards(), properties.getTransactionsPerCard());
+    }
+
+    public Result generate(long cards, int transactionsPerCard) {
+        if (cards < 1 || transactionsPerCard < 0) {
+            throw new IllegalArgumentException("At least one card and zero or more transactions per card are required");
+        }
+        long start = System.nanoTime();
+        long transactions = cards * transactionsPerCard;
+
+        LocalDateTime until = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime from = until.minusMonths(properties.getMonthsBack());
+        Plan plan = new Plan(
+                reserveIds("cards_seq", cards),
+                cards,
+                Math.max(1, Math.min(cards, Math.round(cards * properties.getHotCardRatio()))),
+                transactions > 0 ? reserveIds("transactions_seq", transactions) : 0,
+                from,
+                ChronoUnit.MILLIS.between(from, until));
+
+        runChunks(cards, (chunk, first, last) -> writeCards(plan, chunk, first, last));
+        log.info("Datos sintéticos: {} tarjetas escritas en {} ms", cards, (System.nanoTime() - start) / 1_000_000);
+        runChunks(transactions, (chunk, first, last) -> writeTransactions(plan, chunk, first, last));
+        dashboardMetrics.reconcile();
+
+        long durationMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        Result result = new Result(cards, transactions, durationMillis);
+        log.info("Datos sintéticos generados: {} tarjetas y {} transacciones en {} ms ({} filas/s)",
+                cards, transactions, durationMillis, Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private void writeCards(Plan plan, long chunk, long first, long last) {
+        SplittableRandom random = random(CARD_STREAM, chunk);
+        int size = (int) (last - first);
+        List<String> pans = new ArrayList<>(size);
+        List<String> documents = new ArrayList<>(size);
+        for (long offset = first; offset < last; offset++) {
+            long id = plan.firstCardId + offset;
+            pans.add(PAN_PREFIX + String.format("%013d", id));
+            documents.add(String.valueOf(1_000_000_000L + id));
+        }
+        List<String> identifiers = CardUtils.generateIdentifiers(pans, documents);
+
+        List<String> panHashes = new ArrayList<>(size);
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long offset = first + i;
+            String panHash = panIndex.hash(pans.get(i));
+            panHashes.add(panHash);
+            rows.add(new Object[]{
+                    plan.firstCardId + offset,
+                    identifiers.get(i),
+                    pans.get(i),
+                    panHash,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    documents.get(i),
+                    (random.nextBoolean() ? CardType.CREDIT : CardType.DEBIT).name(),
+                    "+57300" + (1_000_000 + random.nextInt(9_000_000)),
+                    cardStatus(offset).name(),
+                    CardUtils.generateValidationNumber(),
+                    // Las tarjetas existen hasta 30 días antes de la primera compra posible
+                    Timestamp.valueOf(plan.from.minusMinutes(random.nextInt(30 * 24 * 60)))
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_CARD, rows));
+        panHashes.forEach(panIndex::add);
+    }
+
+    private void writeTransactions(Plan plan, long chunk, long first, long last) {
+        SplittableRandom random = random(TRANSACTION_STREAM, chunk);
+        double amountRange = Math.log((double) MAX_AMOUNT_CENTS / MIN_AMOUNT_CENTS);
+        List<Object[]> rows = new ArrayList<>((int) (last - first));
+        for (long offset = first; offset < last; offset++) {
+            long cardOffset = random.nextDouble() < properties.getHotTransactionRatio()
+                    ? random.nextLong(plan.hotCards)
+                    : random.nextLong(plan.cards);
+            if (cardStatus(cardOffset) == CardStatus.CREATED) {
+                // Una tarjeta sin enrolar no compra: la anterior siempre está enrolada o inactiva
+                cardOffset--;
+            }
+            int outcome = random.nextInt(100);
+            TransactionStatus status = outcome < 3 ? TransactionStatus.REJECTED
+                    : outcome < 10 ? TransactionStatus.CANCELLED
+                    : TransactionStatus.APPROVED;
+            // Montos log-uniformes: muchas compras pequeñas y pocas grandes
+            long cents = Math.round(MIN_AMOUNT_CENTS * Math.exp(random.nextDouble() * amountRange));
+
+            rows.add(new Object[]{
+                    plan.firstTransactionId + offset,
+                    referenceNumberGenerator.next(),
+                    plan.firstCardId + cardOffset,
+                    BigDecimal.valueOf(cents, 2),
+                    ADDRESSES[random.nextInt(ADDRESSES.length)],
+                    status.name(),
+                    Timestamp.valueOf(plan.from.plus(random.nextLong(plan.spanMillis), ChronoUnit.MILLIS))
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows));
+    }
+
+    /**
+     * Reparte las filas en bloques entre {@code parallelism} tareas que toman el siguiente bloque libre.
+     */
+    private void runChunks(long rows, ChunkWriter writer) {
+        if (rows == 0) {
+            return;
+        }
+        int chunkSize = properties.getChunkSize();
+        long chunks = (rows + chunkSize - 1) / chunkSize;
+        AtomicLong next = new AtomicLong();
+        int workers = (int) Math.max(1, Math.min(properties.getParallelism(), chunks));
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                long chunk;
+                while ((chunk = next.getAndIncrement()) < chunks) {
+                    long first = chunk * chunkSize;
+                    try {
+                        writer.write(chunk, first, Math.min(rows, first + chunkSize));
+                    } catch (RuntimeException e) {
+                        // Los demás hilos terminan su bloque y no toman otro
+                        next.set(chunks);
+                        throw e;
+                    }
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reserva {@code count} ids consecutivos y adelanta la secuencia más allá del rango, dejando además un
+     * bloque de asignación completo para que el optimizador agrupado de Hibernate no lo alcance.
+     */
+    private long reserveIds(String sequence, long count) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return transactionTemplate.execute(status -> {
+            if ("H2".equals(database)) {
+                Long next = jdbcTemplate.queryForObject(
+                        "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                        Long.class, sequence);
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (next + count + PooledSequenceGenerator.ALLOCATION_SIZE));
+                return next;
+            }
+            if ("MySQL".equals(database)) {
+                // Hibernate usa tablas *_seq en MySQL y también las bloquea al leerlas
+                Long next = jdbcTemplate.queryForObject("select next_val from " + sequence + " for update", Long.class);
+                jdbcTemplate.update("update " + sequence + " set next_val = ?", next + count + PooledSequenceGenerator.ALLOCATION_SIZE);
+                return next;
+            }
+            throw new IllegalStateException("Synthetic data is not supported on " + database);
+        });
+    }
+
+    /**
+     * Estado fijo por posición: 80 % enroladas, 10 % inactivas y 10 % recién creadas.
+     */
+    static CardStatus cardStatus(long offset) {
+        return switch ((int) (offset % 10)) {
+            case 9 -> CardStatus.CREATED;
+            case 8 -> CardStatus.INACTIVE;
+            default -> CardStatus.ENROLLED;
+        };
+    }
+
+    private SplittableRandom random(long stream, long chunk) {
+        return new SplittableRandom(properties.getSeed() ^ stream ^ (chunk * 0x9E3779B97F4A7C15L));
+    }
+
+    public record Result(long cards, long transactions, long durationMillis) {
+
+        public double rowsPerSecond() {
+            return (cards + transactions) * 1000.0 / durationMillis;
+        }
+    }
+
+    private record Plan(long firstCardId, long cards, long hotCards, long firstTransactionId,
+                        LocalDateTime from, long spanMillis) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(long chunk, long first, long last);
+    }
+}
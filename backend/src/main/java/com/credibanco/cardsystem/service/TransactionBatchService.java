@@ -0,0 +1,258 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.TransactionBatchProperties;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.TransactionBatchError;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.util.ReferenceNumberGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingesta de transacciones en lote desde un cuerpo NDJSON. Las líneas se agrupan en bloques de
+ * {@code chunk-size}; cada bloque resuelve sus tarjetas con una sola consulta {@code IN}, inserta
+ * transacciones y auditoría en lotes JDBC dentro de una transacción y, al confirmar, escribe una línea
+ * de respuesta por cada línea de entrada y en el mismo orden: {@link CreateTransactionResponse} o
+ * {@link TransactionBatchError}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionBatchService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final CardService cardService;
+    private final TransactionRepository transactionRepository;
+    private final AuditService auditService;
+    private final ReferenceNumberGenerator referenceNumberGenerator;
+    private final CardConcurrencyGuard concurrencyGuard;
+    private final DashboardMetrics dashboardMetrics;
+    private final VelocityLimiter velocityLimiter;
+    private final CancellableTransactionIndex cancellableIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionBatchProperties properties;
+
+    public BatchSummary process(InputStream input, OutputStream output) throws IOException {
+        BatchSummary summary = new BatchSummary();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<BatchItem> chunk = new ArrayList<>(properties.getChunkSize());
+
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line));
+            if (chunk.size() >= properties.getChunkSize()) {
+                processChunk(chunk, output, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, output, summary);
+        }
+
+        log.info("Lote de transacciones procesado: {} líneas, {} aprobadas, {} rechazadas, {} con error",
+                summary.getApproved() + summary.getRejected() + summary.getFailed(), summary.getApproved(),
+                summary.getRejected(), summary.getFailed());
+        return summary;
+    }
+
+    private BatchItem parse(long lineNumber, String line) {
+        CreateTransactionRequest request;
+        try {
+            request = objectMapper.readValue(line, CreateTransactionRequest.class);
+        } catch (JsonProcessingException e) {
+            return BatchItem.failed(lineNumber, "Malformed JSON");
+        }
+        if (request == null) {
+            return BatchItem.failed(lineNumber, "Malformed JSON");
+        }
+
+        Set<ConstraintViolation<CreateTransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return BatchItem.failed(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return new BatchItem(lineNumber, request);
+    }
+
+    private void processChunk(List<BatchItem> chunk, OutputStream output, BatchSummary summary) throws IOException {
+        List<BatchItem> pending = chunk.stream().filter(item -> item.error == null).toList();
+        Set<String> cardIdentifiers = pending.stream()
+                .map(item -> item.request.getCardIdentifier())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (!pending.isEmpty()) {
+            try {
+                // Se devuelven los resultados en lugar de asignarlos para que un reintento parta de cero
+                Map<BatchItem, Object> outcomes = concurrencyGuard.executeAll(cardIdentifiers, () -> insertChunk(pending, cardIdentifiers));
+                outcomes.forEach((item, outcome) -> {
+                    if (outcome instanceof CreateTransactionResponse response) {
+                        item.response = response;
+                    } else {
+                        item.error = (String) outcome;
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("Error al procesar bloque de {} transacciones: {}", pending.size(), e.getMessage());
+                pending.forEach(item -> item.error = "Transaction could not be processed, please retry");
+            }
+        }
+
+        for (BatchItem item : chunk) {
+            Object line = item.response != null
+                    ? item.response
+                    : new TransactionBatchError(item.lineNumber, item.error);
+            output.write(objectMapper.writeValueAsBytes(line));
+            output.write(NEWLINE);
+            if (item.response == null) {
+                summary.failed++;
+            } else if (item.response.getStatus() == TransactionStatus.APPROVED) {
+                summary.approved++;
+            } else {
+                summary.rejected++;
+            }
+        }
+        output.flush();
+    }
+
+    private Map<BatchItem, Object> insertChunk(List<BatchItem> items, Set<String> cardIdentifiers) {
+        Map<String, Card> cards = cardService.findForPurchase(cardIdentifiers).stream()
+                .collect(Collectors.toMap(Card::getIdentifier, Function.identity()));
+
+        Map<BatchItem, Object> outcomes = new IdentityHashMap<>(items.size());
+        Map<BatchItem, Transaction> accepted = new LinkedHashMap<>(items.size());
+        Map<BatchItem, VelocityLimiter.Violation> violations = new IdentityHashMap<>();
+        for (BatchItem item : items) {
+            Card card = cards.get(item.request.getCardIdentifier());
+            if (card == null) {
+                outcomes.put(item, "Card not found");
+            } else if (card.getStatus() != CardStatus.ENROLLED) {
+                outcomes.put(item, "Card must be enrolled to create transactions");
+            } else {
+                Optional<VelocityLimiter.Violation> violation = velocityLimiter.tryAcquire(card.getId(),
+                        card.getCardType(), item.request.getTotalAmount());
+                violation.ifPresent(value -> violations.put(item, value));
+                accepted.put(item, Transaction.builder()
+                        .cardId(card.getId())
+                        .referenceNumber(referenceNumberGenerator.next())
+                        .totalAmount(item.request.getTotalAmount())
+                        .purchaseAddress(item.request.getPurchaseAddress())
+                        .status(violation.isPresent() ? TransactionStatus.REJECTED : TransactionStatus.APPROVED)
+                        .build());
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return outcomes;
+        }
+
+        // El flush ejecuta los INSERT por lotes y asigna createdAt antes de armar las respuestas
+        transactionRepository.saveAllAndFlush(accepted.values());
+        List<Transaction> approved = accepted.values().stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.APPROVED)
+                .toList();
+        dashboardMetrics.transactionsApproved(approved.size(), approved.stream()
+                .map(Transaction::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        if (approved.size() < accepted.size()) {
+            dashboardMetrics.transactionsRejected(accepted.size() - approved.size());
+        }
+
+        // Mismas acciones y descripciones de auditoría que la compra individual
+        Map<String, String> created = new LinkedHashMap<>(accepted.size() * 2);
+        Map<String, String> rejected = new LinkedHashMap<>();
+        accepted.forEach((item, transaction) -> {
+            String description = "for card: " + item.request.getCardIdentifier()
+                    + " with amount: " + item.request.getTotalAmount();
+            VelocityLimiter.Violation violation = violations.get(item);
+            if (violation != null) {
+                rejected.put(transaction.getReferenceNumber(),
+                        "Transaction rejected " + description + ": " + violation.getMessage());
+            } else {
+                created.put(transaction.getReferenceNumber(), "Transaction created " + description);
+                cancellableIndex.approved(transaction, item.request.getCardIdentifier());
+            }
+            outcomes.put(item, CreateTransactionResponse.builder()
+                    .referenceNumber(transaction.getReferenceNumber())
+                    .cardIdentifier(item.request.getCardIdentifier())
+                    .totalAmount(transaction.getTotalAmount())
+                    .purchaseAddress(transaction.getPurchaseAddress())
+                    .status(transaction.getStatus())
+                    .createdAt(transaction.getCreatedAt())
+                    .build());
+        });
+        if (!created.isEmpty()) {
+            auditService.logActions("CREATE", "Transaction", created);
+        }
+        if (!rejected.isEmpty()) {
+            auditService.logActions("REJECT", "Transaction", rejected);
+        }
+
+        return outcomes;
+    }
+
+    private static final class BatchItem {
+        private final long lineNumber;
+        private final CreateTransactionRequest request;
+        private CreateTransactionResponse response;
+        private String error;
+
+        private BatchItem(long lineNumber, CreateTransactionRequest request) {
+            this.lineNumber = lineNumber;
+            this.request = request;
+        }
+
+        private static BatchItem failed(long lineNumber, String error) {
+            BatchItem item = new BatchItem(lineNumber, null);
+            item.error = error;
+            return item;
+        }
+    }
+
+    /**
+     * Totales del lote, para el registro y las pruebas; el cliente los obtiene de las líneas de respuesta.
+     */
+    @Getter
+    public static final class BatchSummary {
+        private long approved;
+        private long rejected;
+        private long failed;
+    }
+}
@@ -0,0 +1,129 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.ExportFormat;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta transacciones escribiendo cada fila directamente en la salida a medida que llega del cursor,
+ * dentro de una transacción de solo lectura. Las filas son proyecciones, no entidades, y el contexto de
+ * persistencia se limpia periódicamente, de modo que la memoria no crece con el número de filas.
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+
+    static final String CSV_HEADER = "referenceNumber,cardIdentifier,totalAmount,purchaseAddress,status,createdAt\n";
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long export(LocalDateTime from, LocalDateTime to, TransactionStatus status,
+                       ExportFormat format, OutputStream output) {
+        long start = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(tx -> {
+            try (Stream<CreateTransactionResponse> stream = transactionRepository.streamForExport(from, to, status)) {
+                return format == ExportFormat.CSV
+                        ? writeCsv(stream.iterator(), output)
+                        : writeNdjson(stream.iterator(), output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        log.info("Exportación {} finalizada: {} transacciones en {} ms", format, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows == null ? 0 : rows;
+    }
+
+    private long writeCsv(Iterator<CreateTransactionResponse> rows, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+        writer.write(CSV_HEADER);
+        long count = 0;
+        while (rows.hasNext()) {
+            CreateTransactionResponse row = rows.next();
+            writer.write(row.getReferenceNumber());
+            writer.write(',');
+            writer.write(row.getCardIdentifier());
+            writer.write(',');
+            writer.write(row.getTotalAmount().toPlainString());
+            writer.write(',');
+            writeCsvField(writer, row.getPurchaseAddress());
+            writer.write(',');
+            writer.write(row.getStatus().name());
+            writer.write(',');
+            writer.write(row.getCreatedAt().toString());
+            writer.write('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<CreateTransactionResponse> rows, OutputStream output) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValues(output)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        if (count > 0) {
+            output.write('\n');
+        }
+        output.flush();
+        return count;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
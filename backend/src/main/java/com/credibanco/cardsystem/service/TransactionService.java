@@ -1,78 +1,132 @@
 package com.credibanco.cardsystem.service;
 
 import com.credibanco.cardsystem.dto.CancelTransactionRequest;
+import com.credibanco.cardsystem.dto.CardTransactionRow;
 import com.credibanco.cardsystem.dto.CreateTransactionRequest;
 import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.dto.TransactionRow;
 import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.exception.InvalidDateRangeException;
 import com.credibanco.cardsystem.exception.TransactionCancellationException;
 import com.credibanco.cardsystem.exception.TransactionNotFoundException;
-import com.credibanco.cardsystem.model.Card;
 import com.credibanco.cardsystem.model.CardStatus;
 import com.credibanco.cardsystem.model.Transaction;
 import com.credibanco.cardsystem.model.TransactionStatus;
 import com.credibanco.cardsystem.repository.TransactionRepository;
-import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.PageCursor;
+import com.credibanco.cardsystem.util.ReferenceNumberGenerator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    // Límites del historial cuando no se filtra por fecha: el rango siempre llega al índice
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final TransactionRepository transactionRepository;
     private final CardService cardService;
     private final AuditService auditService;
+    private final ReferenceNumberGenerator referenceNumberGenerator;
+    private final CardConcurrencyGuard concurrencyGuard;
+    private final DashboardMetrics dashboardMetrics;
+    private final VelocityLimiter velocityLimiter;
+    private final CancellableTransactionIndex cancellableIndex;
 
-    @Transactional
+    @Timed(value = "transaction.service", histogram = true)
     public CreateTransactionResponse createTransaction(CreateTransactionRequest request) {
-        Card card = cardService.findByIdentifier(request.getCardIdentifier());
+        return concurrencyGuard.execute(request.getCardIdentifier(), () -> doCreateTransaction(request));
+    }
 
-        if (card.getStatus() != CardStatus.ENROLLED) {
+    @Timed(value = "transaction.service", histogram = true)
+    public void cancelTransaction(CancelTransactionRequest request) {
+        Optional<CancellableTransactionIndex.Entry> indexed = cancellableIndex.find(request.getReferenceNumber());
+        if (indexed.isPresent()) {
+            CancellableTransactionIndex.Entry entry = indexed.get();
+            concurrencyGuard.run(entry.cardIdentifier(), () -> doCancelIndexedTransaction(entry));
+            return;
+        }
+        if (cancellableIndex.isAuthoritative()) {
+            throw new TransactionCancellationException("Transaction is unknown or can no longer be cancelled");
+        }
+
+        // Calentamiento del índice: la transacción pudo confirmarse antes del arranque
+        String cardIdentifier = transactionRepository.findCardIdentifierByReferenceNumber(request.getReferenceNumber())
+                .orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
+
+        concurrencyGuard.run(cardIdentifier, () -> doCancelTransaction(request));
+    }
+
+    private CreateTransactionResponse doCreateTransaction(CreateTransactionRequest request) {
+        CardCache.Snapshot card = cardService.findForPurchase(request.getCardIdentifier());
+
+        if (card.status() != CardStatus.ENROLLED) {
             throw new InvalidCardStatusException("Card must be enrolled to create transactions");
         }
 
-        String referenceNumber = CardUtils.generateReferenceNumber();
+        Optional<VelocityLimiter.Violation> violation =
+                velocityLimiter.tryAcquire(card.id(), card.cardType(), request.getTotalAmount());
+        TransactionStatus status = violation.isPresent() ? TransactionStatus.REJECTED : TransactionStatus.APPROVED;
+        String referenceNumber = referenceNumberGenerator.next();
 
         Transaction transaction = Transaction.builder()
-                .cardId(card.getId())
+                .cardId(card.id())
                 .referenceNumber(referenceNumber)
                 .totalAmount(request.getTotalAmount())
                 .purchaseAddress(request.getPurchaseAddress())
-                .status(TransactionStatus.APPROVED)
+                .status(status)
                 .build();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
 
-        auditService.logAction(
-                "CREATE",
-                "Transaction",
-                savedTransaction.getReferenceNumber(),
-                "Transaction created for card: " + card.getIdentifier() + 
-                " with amount: " + request.getTotalAmount()
-        );
-
-        log.info("Transaction created with reference: {}", referenceNumber);
+        if (violation.isPresent()) {
+            dashboardMetrics.transactionsRejected(1);
+            auditService.logAction(
+                    "REJECT",
+                    "Transaction",
+                    savedTransaction.getReferenceNumber(),
+                    "Transaction rejected for card: " + card.identifier() +
+                    " with amount: " + request.getTotalAmount() + ": " + violation.get().getMessage()
+            );
+            log.warn("Transaction rejected with reference: {} ({})", referenceNumber, violation.get());
+        } else {
+            dashboardMetrics.transactionsApproved(1, savedTransaction.getTotalAmount());
+            cancellableIndex.approved(savedTransaction, card.identifier());
+            auditService.logAction(
+                    "CREATE",
+                    "Transaction",
+                    savedTransaction.getReferenceNumber(),
+                    "Transaction created for card: " + card.identifier() +
+                    " with amount: " + request.getTotalAmount()
+            );
+            log.info("Transaction created with reference: {}", referenceNumber);
+        }
 
         return CreateTransactionResponse.builder()
                 .referenceNumber(referenceNumber)
                 .cardIdentifier(request.getCardIdentifier())
                 .totalAmount(request.getTotalAmount())
                 .purchaseAddress(request.getPurchaseAddress())
-                .status(TransactionStatus.APPROVED)
+                .status(status)
                 .createdAt(savedTransaction.getCreatedAt())
                 .build();
     }
 
-    @Transactional
-    public void cancelTransaction(CancelTransactionRequest request) {
+    private void doCancelTransaction(CancelTransactionRequest request) {
         Transaction transaction = transactionRepository.findByReferenceNumber(request.getReferenceNumber())
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found"));
 
@@ -80,15 +134,15 @@ public class TransactionService {
             throw new TransactionCancellationException("Only approved transactions can be cancelled");
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        Duration timeDiff = Duration.between(transaction.getCreatedAt(), now);
-
-        if (timeDiff.toMinutes() > 5) {
+        if (CancellableTransactionIndex.isExpired(transaction.getCreatedAt(), LocalDateTime.now())) {
             throw new TransactionCancellationException("Transaction can only be cancelled within 5 minutes of creation");
         }
 
         transaction.setStatus(TransactionStatus.CANCELLED);
         transactionRepository.save(transaction);
+        dashboardMetrics.transactionCancelled(transaction.getTotalAmount());
+        velocityLimiter.release(transaction.getCardId(), transaction.getTotalAmount(), transaction.getCreatedAt());
+        cancellableIndex.cancelled(transaction.getReferenceNumber());
 
         auditService.logAction(
                 "CANCEL",
@@ -100,25 +154,35 @@ public class TransactionService {
         log.info("Transaction cancelled with reference: {}", request.getReferenceNumber());
     }
 
+    private void doCancelIndexedTransaction(CancellableTransactionIndex.Entry entry) {
+        if (CancellableTransactionIndex.isExpired(entry.createdAt(), LocalDateTime.now())) {
+            throw new TransactionCancellationException("Transaction can only be cancelled within 5 minutes of creation");
+        }
+
+        // El índice ya aporta id, tarjeta y monto: se actualiza la fila sin leerla
+        if (transactionRepository.updateStatus(entry.id(), TransactionStatus.APPROVED, TransactionStatus.CANCELLED) == 0) {
+            throw new TransactionCancellationException("Only approved transactions can be cancelled");
+        }
+        dashboardMetrics.transactionCancelled(entry.totalAmount());
+        velocityLimiter.release(entry.cardId(), entry.totalAmount(), entry.createdAt());
+        cancellableIndex.cancelled(entry.referenceNumber());
+
+        auditService.logAction(
+                "CANCEL",
+                "Transaction",
+                entry.referenceNumber(),
+                "Transaction cancelled"
+        );
+
+        log.info("Transaction cancelled with reference: {}", entry.referenceNumber());
+    }
+
+    @Timed(value = "transaction.service", histogram = true)
     public Page<CreateTransactionResponse> getAllTransactions(Pageable pageable) {
         log.info("Consultando todas las transacciones con paginación: página {}, tamaño {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
         
-        Page<Transaction> transactionsPage = transactionRepository.findAll(pageable);
-        
-        Page<CreateTransactionResponse> responsePage = transactionsPage.map(transaction -> {
-            // Necesitamos obtener el cardIdentifier desde la Card asociada
-            Card card = cardService.findById(transaction.getCardId());
-            
-            return CreateTransactionResponse.builder()
-                    .referenceNumber(transaction.getReferenceNumber())
-                    .cardIdentifier(card.getIdentifier())
-                    .totalAmount(transaction.getTotalAmount())
-                    .purchaseAddress(transaction.getPurchaseAddress())
-                    .status(transaction.getStatus())
-                    .createdAt(transaction.getCreatedAt())
-                    .build();
-        });
+        Page<CreateTransactionResponse> responsePage = transactionRepository.findAllWithCardIdentifier(pageable);
         
         log.info("Obtenidas {} transacciones de un total de {} en página {}", 
                 responsePage.getNumberOfElements(), responsePage.getTotalElements(), 
@@ -126,4 +190,94 @@ public class TransactionService {
         
         return responsePage;
     }
-}
\ No newline at end of file
+
+    public CursorPage<CreateTransactionResponse> getTransactionsAfter(String after, int size) {
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<TransactionRow> slice;
+        if (after == null || after.isBlank()) {
+            slice = transactionRepository.findFirstSlice(pageable);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            slice = transactionRepository.findSliceAfter(cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+
+        List<TransactionRow> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            TransactionRow last = rows.get(rows.size() - 1);
+            nextCursor = new PageCursor(last.createdAt(), last.id()).encode();
+        }
+
+        List<CreateTransactionResponse> content = rows.stream()
+                .map(row -> CreateTransactionResponse.builder()
+                        .referenceNumber(row.referenceNumber())
+                        .cardIdentifier(row.cardIdentifier())
+                        .totalAmount(row.totalAmount())
+                        .purchaseAddress(row.purchaseAddress())
+                        .status(row.status())
+                        .createdAt(row.createdAt())
+                        .build())
+                .toList();
+
+        return CursorPage.<CreateTransactionResponse>builder()
+                .content(content)
+                .size(size)
+                .numberOfElements(content.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Historial de una tarjeta entre {@code from} (inclusive) y {@code to} (exclusivo), opcionalmente por
+     * estado, paginado por llave (createdAt, id) de la más reciente a la más antigua. El costo de cada página
+     * depende de su tamaño y no del número de transacciones de la tarjeta ni de la profundidad del cursor.
+     */
+    @Timed(value = "transaction.service", histogram = true)
+    public CursorPage<CreateTransactionResponse> getCardTransactions(String cardIdentifier, LocalDateTime from,
+                                                                      LocalDateTime to, TransactionStatus status,
+                                                                      String after, int size) {
+        LocalDateTime lower = from != null ? from : HISTORY_START;
+        LocalDateTime upper = to != null ? to : HISTORY_END;
+        if (!lower.isBefore(upper)) {
+            throw new InvalidDateRangeException("'from' must be before 'to'");
+        }
+        CardCache.Snapshot card = cardService.findByIdentifier(cardIdentifier);
+
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<CardTransactionRow> slice;
+        if (after == null || after.isBlank()) {
+            slice = transactionRepository.findCardHistory(card.id(), lower, upper, status, pageable);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            slice = transactionRepository.findCardHistoryAfter(card.id(), lower, upper, status,
+                    cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+
+        List<CardTransactionRow> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            CardTransactionRow last = rows.get(rows.size() - 1);
+            nextCursor = new PageCursor(last.createdAt(), last.id()).encode();
+        }
+
+        List<CreateTransactionResponse> content = rows.stream()
+                .map(row -> CreateTransactionResponse.builder()
+                        .referenceNumber(row.referenceNumber())
+                        .cardIdentifier(card.identifier())
+                        .totalAmount(row.totalAmount())
+                        .purchaseAddress(row.purchaseAddress())
+                        .status(row.status())
+                        .createdAt(row.createdAt())
+                        .build())
+                .toList();
+
+        return CursorPage.<CreateTransactionResponse>builder()
+                .content(content)
+                .size(size)
+                .numberOfElements(content.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
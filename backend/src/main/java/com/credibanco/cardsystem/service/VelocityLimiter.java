@@ -0,0 +1,196 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.VelocityLimitProperties;
+import com.credibanco.cardsystem.model.CardType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Límites de velocidad y gasto por tarjeta evaluados en memoria: transacciones por minuto y monto por hora
+ * y por día, según el perfil de su {@link CardType}. Cada ventana es un contador deslizante de dos cubetas
+ * (la actual y la anterior ponderada por el tiempo que aún cubre), así que el estado de una tarjeta son
+ * nueve {@code long} inmutables que se reemplazan con CAS, sin cerrojos.
+ * <p>
+ * El estado vive en una caché acotada por número de tarjetas y que descarta las inactivas; perder el de una
+ * tarjeta sólo la deja empezar de cero. El consumo se devuelve si la transacción no confirma.
+ */
+@Service
+public class VelocityLimiter {
+
+    static final long MINUTE = 60_000L;
+    static final long HOUR = 60 * MINUTE;
+    static final long DAY = 24 * HOUR;
+
+    private final VelocityLimitProperties properties;
+    private final Cache<Long, AtomicReference<CardWindows>> windows;
+
+    public VelocityLimiter(VelocityLimitProperties properties) {
+        this.properties = properties;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedCards())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+    }
+
+    /**
+     * Consume el cupo de la compra si cabe en todos los límites; si no, devuelve el primero que excede.
+     */
+    public Optional<Violation> tryAcquire(Long cardId, CardType cardType, BigDecimal amount) {
+        return tryAcquire(cardId, cardType, amount, System.currentTimeMillis());
+    }
+
+    Optional<Violation> tryAcquire(Long cardId, CardType cardType, BigDecimal amount, long now) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        VelocityLimitProperties.Profile profile = properties.getProfiles().get(cardType);
+        if (profile == null) {
+            return Optional.empty();
+        }
+
+        long cents = toCents(amount);
+        AtomicReference<CardWindows> state = windows.get(cardId, id -> new AtomicReference<>(CardWindows.EMPTY));
+        while (true) {
+            CardWindows current = state.get();
+            CardWindows rolled = current.roll(now);
+            Violation violation = rolled.check(profile, cents, now);
+            if (violation != null) {
+                return Optional.of(violation);
+            }
+            if (state.compareAndSet(current, rolled.add(cents))) {
+                break;
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(cardId, cents, now);
+                    }
+                }
+            });
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Devuelve el cupo de una transacción aprobada que se cancela, si sigue dentro de alguna ventana.
+     */
+    public void release(Long cardId, BigDecimal amount, LocalDateTime createdAt) {
+        long cents = toCents(amount);
+        long at = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(cardId, cents, at);
+                }
+            });
+        } else {
+            release(cardId, cents, at);
+        }
+    }
+
+    private void release(Long cardId, long cents, long at) {
+        AtomicReference<CardWindows> state = windows.getIfPresent(cardId);
+        if (state != null) {
+            state.updateAndGet(current -> current.subtract(cents, at));
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    @Getter
+    public enum Violation {
+        TRANSACTIONS_PER_MINUTE("Transactions per minute limit exceeded"),
+        AMOUNT_PER_HOUR("Hourly amount limit exceeded"),
+        AMOUNT_PER_DAY("Daily amount limit exceeded");
+
+        private final String message;
+
+        Violation(String message) {
+            this.message = message;
+        }
+    }
+
+    private record CardWindows(Window count, Window hourAmount, Window dayAmount) {
+
+        private static final CardWindows EMPTY = new CardWindows(Window.EMPTY, Window.EMPTY, Window.EMPTY);
+
+        private CardWindows roll(long now) {
+            CardWindows rolled = new CardWindows(count.roll(now, MINUTE), hourAmount.roll(now, HOUR), dayAmount.roll(now, DAY));
+            return rolled.equals(this) ? this : rolled;
+        }
+
+        private Violation check(VelocityLimitProperties.Profile profile, long cents, long now) {
+            if (count.estimate(now, MINUTE) + 1 > profile.getMaxTransactionsPerMinute()) {
+                return Violation.TRANSACTIONS_PER_MINUTE;
+            }
+            if (hourAmount.estimate(now, HOUR) + cents > toCents(profile.getMaxAmountPerHour())) {
+                return Violation.AMOUNT_PER_HOUR;
+            }
+            if (dayAmount.estimate(now, DAY) + cents > toCents(profile.getMaxAmountPerDay())) {
+                return Violation.AMOUNT_PER_DAY;
+            }
+            return null;
+        }
+
+        private CardWindows add(long cents) {
+            return new CardWindows(count.add(1), hourAmount.add(cents), dayAmount.add(cents));
+        }
+
+        private CardWindows subtract(long cents, long at) {
+            return new CardWindows(count.subtract(1, at, MINUTE), hourAmount.subtract(cents, at, HOUR),
+                    dayAmount.subtract(cents, at, DAY));
+        }
+    }
+
+    /**
+     * Ventana deslizante aproximada: la cubeta alineada que contiene {@code start} y la inmediatamente anterior.
+     */
+    private record Window(long start, long current, long previous) {
+
+        private static final Window EMPTY = new Window(0, 0, 0);
+
+        private Window roll(long now, long size) {
+            long bucket = now - Math.floorMod(now, size);
+            if (bucket <= start) {
+                return this;
+            }
+            return new Window(bucket, 0, bucket - start == size ? current : 0);
+        }
+
+        private long estimate(long now, long size) {
+            long remaining = Math.min(size, Math.max(0, size - (now - start)));
+            return current + (previous * remaining + size - 1) / size;
+        }
+
+        private Window add(long value) {
+            return new Window(start, current + value, previous);
+        }
+
+        private Window subtract(long value, long at, long size) {
+            if (at >= start) {
+                return new Window(start, Math.max(0, current - value), previous);
+            }
+            if (at >= start - size) {
+                return new Window(start, current, Math.max(0, previous - value));
+            }
+            return this;
+        }
+    }
+}
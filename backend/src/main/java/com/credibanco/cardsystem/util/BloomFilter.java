@@ -0,0 +1,56 @@
+package com.credibanco.cardsystem.util;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sobre hashes hexadecimales ya uniformes (p. ej. HMAC-SHA256): los índices se derivan de
+ * sus primeros 128 bits con doble hashing, sin volver a hashear. {@link #mightContain} nunca da falsos
+ * negativos; los falsos positivos rondan la tasa configurada mientras no se supere la capacidad.
+ * Admite inserciones y consultas concurrentes sin cerrojos.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String hexHash) {
+        long h1 = HexFormat.fromHexDigitsToLong(hexHash, 0, 16);
+        long h2 = HexFormat.fromHexDigitsToLong(hexHash, 16, 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String hexHash) {
+        long h1 = HexFormat.fromHexDigitsToLong(hexHash, 0, 16);
+        long h2 = HexFormat.fromHexDigitsToLong(hexHash, 16, 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+}
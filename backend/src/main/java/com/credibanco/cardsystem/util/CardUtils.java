@@ -1,13 +1,21 @@
 package com.credibanco.cardsystem.util;
 
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CardUtils {
 
     private static final SecureRandom random = new SecureRandom();
+    private static final int SHA256_LENGTH = 32;
+    private static final int IDENTIFIER_BYTES = 16;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ReferenceNumberGenerator DEFAULT_REFERENCE_GENERATOR = new ReferenceNumberGenerator(0);
+    private static final ThreadLocal<IdentifierHasher> IDENTIFIER_HASHER = ThreadLocal.withInitial(IdentifierHasher::new);
 
     public static String maskPan(String pan) {
         if (pan == null || pan.length() != 16) {
@@ -17,34 +25,92 @@ public class CardUtils {
     }
 
     public static String generateIdentifier(String pan, String documentNumber) {
-        try {
-            String data = pan + documentNumber;
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            
-            return hexString.toString().substring(0, 32);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error generating identifier", e);
+        return IDENTIFIER_HASHER.get().hash(pan, documentNumber);
+    }
+
+    /**
+     * Variante masiva para importaciones: reutiliza el mismo digest y buffers para todos los pares.
+     */
+    public static List<String> generateIdentifiers(List<String> pans, List<String> documentNumbers) {
+        if (pans.size() != documentNumbers.size()) {
+            throw new IllegalArgumentException("PAN and document number lists must have the same size");
+        }
+        IdentifierHasher hasher = IDENTIFIER_HASHER.get();
+        List<String> identifiers = new ArrayList<>(pans.size());
+        for (int i = 0; i < pans.size(); i++) {
+            identifiers.add(hasher.hash(pans.get(i), documentNumbers.get(i)));
         }
+        return identifiers;
     }
 
     public static String generateValidationNumber() {
         return String.format("%03d", random.nextInt(100));
     }
 
+    /**
+     * Referencia generada con el nodo 0. La aplicación usa el bean {@link ReferenceNumberGenerator}
+     * configurado con el id de nodo de cada instancia.
+     */
     public static String generateReferenceNumber() {
-        // Combinar timestamp con número aleatorio para garantizar unicidad
-        long timestamp = System.currentTimeMillis();
-        int randomPart = random.nextInt(100000);
-        return String.format("TXN%d%05d", timestamp, randomPart);
+        return DEFAULT_REFERENCE_GENERATOR.next();
+    }
+
+    /**
+     * SHA-256 de PAN + documento, en hexadecimal y truncado a 32 caracteres. Mantiene por hilo el
+     * digest y los buffers, y solo codifica los 16 bytes que se conservan.
+     */
+    private static final class IdentifierHasher {
+
+        private final MessageDigest digest;
+        private final byte[] hash = new byte[SHA256_LENGTH];
+        private final byte[] hex = new byte[IDENTIFIER_BYTES * 2];
+        private byte[] input = new byte[64];
+
+        private IdentifierHasher() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("Error generating identifier", e);
+            }
+        }
+
+        String hash(String pan, String documentNumber) {
+            String first = String.valueOf(pan);
+            String second = String.valueOf(documentNumber);
+            int length = first.length() + second.length();
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+
+            if (encodeAscii(first, 0) && encodeAscii(second, first.length())) {
+                digest.update(input, 0, length);
+            } else {
+                // Fuera de ASCII se delega en el codificador UTF-8 estándar
+                digest.update((first + second).getBytes(StandardCharsets.UTF_8));
+            }
+
+            try {
+                digest.digest(hash, 0, SHA256_LENGTH);
+            } catch (DigestException e) {
+                throw new RuntimeException("Error generating identifier", e);
+            }
+
+            for (int i = 0; i < IDENTIFIER_BYTES; i++) {
+                hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+                hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
+            }
+            return new String(hex, StandardCharsets.ISO_8859_1);
+        }
+
+        private boolean encodeAscii(String value, int offset) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    return false;
+                }
+                input[offset + i] = (byte) c;
+            }
+            return true;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.credibanco.cardsystem.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA256 del PAN en hexadecimal (64 caracteres). Es la clave de búsqueda de la columna
+ * {@code cards.pan_hash}: sin la clave secreta no se puede recorrer el espacio de PAN para revertirlo.
+ * Con la misma clave firma otros datos que contienen un PAN, como la huella de una petición idempotente.
+ */
+public class PanHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    // Mac no es seguro entre hilos
+    private final ThreadLocal<Mac> macs;
+
+    public PanHasher(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("PAN hash key is required");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String hash(String pan) {
+        return hash(pan.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public String hash(byte[] value) {
+        return HexFormat.of().formatHex(macs.get().doFinal(value));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot initialize " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.credibanco.cardsystem.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generador de números de referencia estilo Snowflake: 41 bits de milisegundos desde
+ * {@link #EPOCH}, 10 bits de nodo y 12 bits de secuencia por milisegundo. El estado
+ * (instante, secuencia) se avanza con CAS, sin bloqueos.
+ *
+ * <p>Si el reloj retrocede se sigue emitiendo sobre el último instante lógico, y si la secuencia
+ * de un milisegundo se agota se adelanta el instante lógico en uno, de modo que los valores son
+ * siempre crecientes para un mismo nodo.
+ */
+public class ReferenceNumberGenerator {
+
+    public static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    public static final int MAX_NODE_ID = 1023;
+    public static final String PREFIX = "TXN";
+    public static final int LENGTH = PREFIX.length() + 19;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public ReferenceNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    ReferenceNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTime = current >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH;
+
+            long next;
+            if (now > lastTime) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                next = (lastTime + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                return (time << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String next() {
+        return format(nextId());
+    }
+
+    /**
+     * "TXN" seguido del identificador en 19 dígitos decimales con ceros a la izquierda.
+     */
+    static String format(long id) {
+        char[] chars = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        long remaining = id;
+        for (int i = LENGTH - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + (remaining % 10));
+            remaining /= 10;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,82 @@
+package com.credibanco.cardsystem.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tiempos acumulados por capa durante una petición muestreada, ligados al hilo que la atiende.
+ * Las llamadas anidadas a una misma capa (un servicio que llama a otro) se cuentan una sola vez.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Segment> segments = new LinkedHashMap<>();
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marca la entrada a una capa; devuelve el instante de inicio o -1 si ya se estaba dentro de ella.
+     */
+    public long enter(String name) {
+        Segment segment = segments.computeIfAbsent(name, key -> new Segment());
+        return segment.depth++ == 0 ? System.nanoTime() : -1;
+    }
+
+    public void exit(String name, long enteredAt) {
+        Segment segment = segments.get(name);
+        segment.depth--;
+        if (enteredAt >= 0) {
+            segment.nanos += System.nanoTime() - enteredAt;
+            segment.calls++;
+        }
+    }
+
+    /**
+     * Valor de la cabecera {@code Server-Timing} con lo acumulado hasta ahora.
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder();
+        segments.forEach((name, segment) -> header.append(name)
+                .append(";desc=\"").append(segment.calls).append(" calls\";dur=").append(millis(segment.nanos))
+                .append(", "));
+        return header.append("total;dur=").append(millis(System.nanoTime() - startedAt)).toString();
+    }
+
+    /**
+     * Campos {@code capa=ms/llamadas} para la línea de log de la petición.
+     */
+    public String toLogFields() {
+        StringBuilder fields = new StringBuilder();
+        segments.forEach((name, segment) -> fields.append(name).append('=')
+                .append(millis(segment.nanos)).append("ms/").append(segment.calls).append(' '));
+        return fields.append("total=").append(millis(System.nanoTime() - startedAt)).append("ms").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static final class Segment {
+        private int depth;
+        private int calls;
+        private long nanos;
+    }
+}
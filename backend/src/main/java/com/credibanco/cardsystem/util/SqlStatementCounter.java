@@ -0,0 +1,54 @@
+package com.credibanco.cardsystem.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual entre {@link #start()} y {@link #stop()}.
+ * Fuera de ese intervalo no cuenta nada; el trabajo que sale del hilo (p. ej. respuestas en streaming) no se incluye.
+ * {@link #capture(Runnable)} guarda además el texto de cada sentencia, para inspeccionar sus planes.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+    private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public void start() {
+        count.set(new int[1]);
+    }
+
+    public int stop() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    /**
+     * Ejecuta {@code work} y devuelve, en orden, el SQL que Hibernate preparó en el hilo actual mientras tanto.
+     */
+    public List<String> capture(Runnable work) {
+        List<String> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            work.run();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+}
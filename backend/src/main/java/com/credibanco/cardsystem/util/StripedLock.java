@@ -0,0 +1,52 @@
+package com.credibanco.cardsystem.util;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de cerrojos indexados por el hash de una llave: la misma llave siempre usa el mismo
+ * cerrojo y llaves distintas sólo compiten si colisionan en la misma franja.
+ */
+public class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedLock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = this.stripes.length - 1;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public int indexFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    public ReentrantLock lockFor(Object key) {
+        return stripes[indexFor(key)];
+    }
+
+    /**
+     * Índices de franja distintos de las llaves, en orden ascendente: tomar varios cerrojos siempre en
+     * este orden evita interbloqueos entre operaciones que comparten franjas.
+     */
+    public int[] orderedIndexes(Collection<?> keys) {
+        return keys.stream().mapToInt(this::indexFor).distinct().sorted().toArray();
+    }
+
+    public ReentrantLock stripe(int index) {
+        return stripes[index];
+    }
+}
@@ -0,0 +1,32 @@
+-- Desde el esquema base: versión optimista, hash del PAN (se completa al arrancar), claves de idempotencia,
+-- índices de paginación por cursor y secuencias agrupadas para los ids
+
+alter table cards add column pan_hash varchar(64);
+alter table cards add column version bigint default 0;
+alter table cards add constraint uk_cards_pan_hash unique (pan_hash);
+alter table transactions add column version bigint default 0;
+
+create table idempotency_keys (
+    id bigint not null,
+    scope varchar(30) not null,
+    idempotency_key varchar(100) not null,
+    request_hash varchar(64) not null,
+    response_body varchar(4000) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_idempotency_scope_key unique (scope, idempotency_key)
+);
+
+create index idx_cards_created_at_id on cards (created_at, id);
+create index idx_transactions_created_at_id on transactions (created_at, id);
+
+-- Incremento 50 = cardsystem.id.allocation-size. Hibernate toma el valor leído como extremo superior de su
+-- bloque (valor - 49 .. valor), por eso cada secuencia arranca en max(id) + 50 y no repite ids existentes.
+-- Las columnas IDENTITY se conservan; sólo dejan de usarse
+create sequence cards_seq start with 1 increment by 50;
+alter sequence cards_seq restart with (select coalesce(max(id), 0) + 50 from cards);
+create sequence transactions_seq start with 1 increment by 50;
+alter sequence transactions_seq restart with (select coalesce(max(id), 0) + 50 from transactions);
+create sequence audit_logs_seq start with 1 increment by 50;
+alter sequence audit_logs_seq restart with (select coalesce(max(id), 0) + 50 from audit_logs);
+create sequence idempotency_keys_seq start with 50 increment by 50;
@@ -0,0 +1,8 @@
+-- Las claves de idempotencia se reservan antes de ejecutar la operación: la fila entra PENDING, sin
+-- respuesta, y pasa a COMPLETED con ella. Las filas existentes ya tienen respuesta.
+-- Las respuestas de alta guardadas incluían el número de validación en claro: se descartan. Un reintento de
+-- esas claves choca con el PAN ya registrado y no crea otra tarjeta
+
+alter table idempotency_keys add column status varchar(20) default 'COMPLETED' not null;
+alter table idempotency_keys alter column response_body set null;
+delete from idempotency_keys where scope = 'cards';
@@ -0,0 +1,41 @@
+-- Esquema base: el que la versión inicial creaba con ddl-auto=update (ids AUTO_INCREMENT, sin versión
+-- optimista ni hash del PAN). Una base existente de esa versión se marca aquí (baseline-on-migrate) y
+-- recibe desde V2
+
+create table cards (
+    id bigint not null auto_increment,
+    identifier varchar(255) not null,
+    pan varchar(16) not null,
+    holder_name varchar(255) not null,
+    document_number varchar(255) not null,
+    card_type enum ('CREDIT','DEBIT') not null,
+    phone_number varchar(255),
+    status enum ('CREATED','ENROLLED','INACTIVE') not null,
+    validation_number varchar(6),
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_cards_identifier unique (identifier)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    reference_number varchar(255) not null,
+    card_id bigint not null,
+    total_amount decimal(10,2) not null,
+    purchase_address varchar(255) not null,
+    status enum ('APPROVED','CANCELLED','REJECTED') not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_transactions_reference_number unique (reference_number),
+    constraint fk_transactions_card foreign key (card_id) references cards (id)
+) engine=InnoDB;
+
+create table audit_logs (
+    id bigint not null auto_increment,
+    entity varchar(255) not null,
+    entity_identifier varchar(255) not null,
+    action varchar(255) not null,
+    description varchar(255),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
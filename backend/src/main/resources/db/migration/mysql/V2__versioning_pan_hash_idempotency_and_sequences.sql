@@ -0,0 +1,33 @@
+-- Desde el esquema base: versión optimista, hash del PAN (se completa al arrancar), claves de idempotencia,
+-- índices de paginación por cursor y secuencias agrupadas para los ids
+
+alter table cards add column pan_hash varchar(64);
+alter table cards add column version bigint default 0;
+alter table cards add constraint uk_cards_pan_hash unique (pan_hash);
+alter table transactions add column version bigint default 0;
+
+create table idempotency_keys (
+    id bigint not null,
+    scope varchar(30) not null,
+    idempotency_key varchar(100) not null,
+    request_hash varchar(64) not null,
+    response_body varchar(4000) not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_idempotency_scope_key unique (scope, idempotency_key)
+) engine=InnoDB;
+
+create index idx_cards_created_at_id on cards (created_at, id);
+create index idx_transactions_created_at_id on transactions (created_at, id);
+
+-- Tablas de secuencia de Hibernate (incremento 50 = cardsystem.id.allocation-size). El valor leído es el
+-- extremo superior del bloque (valor - 49 .. valor), por eso cada tabla arranca en max(id) + 50 y no repite
+-- ids existentes. Las columnas AUTO_INCREMENT se conservan; sólo dejan de usarse
+create table cards_seq (next_val bigint) engine=InnoDB;
+insert into cards_seq select coalesce(max(id), 0) + 50 from cards;
+create table transactions_seq (next_val bigint) engine=InnoDB;
+insert into transactions_seq select coalesce(max(id), 0) + 50 from transactions;
+create table audit_logs_seq (next_val bigint) engine=InnoDB;
+insert into audit_logs_seq select coalesce(max(id), 0) + 50 from audit_logs;
+create table idempotency_keys_seq (next_val bigint) engine=InnoDB;
+insert into idempotency_keys_seq values (50);
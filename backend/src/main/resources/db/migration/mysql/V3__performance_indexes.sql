@@ -0,0 +1,7 @@
+-- Índices de las consultas de servicio: historial por tarjeta, resúmenes por estado y rango de fechas,
+-- auditoría por entidad y conteo de tarjetas por estado
+
+create index idx_transactions_card_id_created_at on transactions (card_id, created_at);
+create index idx_transactions_status_created_at on transactions (status, created_at);
+create index idx_audit_logs_entity on audit_logs (entity, entity_identifier);
+create index idx_cards_status on cards (status);
@@ -0,0 +1,3 @@
+-- Vista de cliente: todas las tarjetas de un documento en una sola búsqueda por índice
+
+create index idx_cards_document_number on cards (document_number);
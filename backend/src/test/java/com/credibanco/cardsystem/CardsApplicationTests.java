@@ -1,12 +1,9 @@
 package com.credibanco.cardsystem;
 
+import com.credibanco.cardsystem.support.IntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
-@ActiveProfiles("test")
-class CardsApplicationTests {
+class CardsApplicationTests extends IntegrationTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,38 @@
+package com.credibanco.cardsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerViewPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class,
+                    ValidationAutoConfiguration.class))
+            .withUserConfiguration(CustomerViewProperties.class);
+
+    @Test
+    void zeroRecentTransactions_StopsStartup() {
+        contextRunner.withPropertyValues("app.customer-view.recent-transactions=0").run(context -> {
+            assertNotNull(context.getStartupFailure());
+            Throwable cause = context.getStartupFailure();
+            while (!(cause instanceof BindValidationException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertInstanceOf(BindValidationException.class, cause);
+        });
+    }
+
+    @Test
+    void positiveRecentTransactions_IsBound() {
+        contextRunner.withPropertyValues("app.customer-view.recent-transactions=3").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(3, context.getBean(CustomerViewProperties.class).getRecentTransactions());
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.PanHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PanHashConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(PanHashProperties.class, PanHashConfig.class);
+
+    @Test
+    void missingKey_StopsStartup() {
+        contextRunner.withPropertyValues("app.pan-hash.key=").run(context -> {
+            assertNotNull(context.getStartupFailure());
+            Throwable cause = context.getStartupFailure();
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals("PAN hash key is required", cause.getMessage());
+        });
+    }
+
+    @Test
+    void configuredKey_CreatesHasher() {
+        contextRunner.withPropertyValues("app.pan-hash.key=configured-key").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(new PanHasher("configured-key").hash("4111111111111111"),
+                    context.getBean(PanHasher.class).hash("4111111111111111"));
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.util.ReferenceNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceNumberConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ReferenceNumberConfig.class);
+
+    @Test
+    void missingNodeId_StopsStartup() {
+        // application.yml resuelve ${NODE_ID:} a vacío cuando la variable no está definida
+        contextRunner.withPropertyValues("app.reference.node-id=").run(context -> {
+            assertNotNull(context.getStartupFailure());
+            Throwable cause = context.getStartupFailure();
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            assertEquals("Node id is required: set NODE_ID to a value unique per instance", cause.getMessage());
+        });
+    }
+
+    @Test
+    void configuredNodeId_CreatesGenerator() {
+        contextRunner.withPropertyValues("app.reference.node-id=7").run(context -> {
+            assertNull(context.getStartupFailure());
+            long id = context.getBean(ReferenceNumberGenerator.class).nextId();
+            assertEquals(7, (id >> 12) & ReferenceNumberGenerator.MAX_NODE_ID);
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.credibanco.cardsystem.config;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.service.CardService;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.RequestTimings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(properties = "app.server-timing.sample-rate=1.0")
+@AutoConfigureMockMvc
+class ServerTimingConfigTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CardService cardService;
+
+    @Test
+    void sampledRequest_ReportsEachLayerInServerTimingHeader() throws Exception {
+        long sequence = TestCards.next();
+        CreateCardResponse card = cardService.createCard(CreateCardRequest.builder()
+                .pan(TestCards.pan("4777", sequence))
+                .holderName("Timing Holder")
+                .documentNumber("TIM" + sequence)
+                .cardType(CardType.CREDIT)
+                .build());
+
+        mockMvc.perform(get("/cards/{identifier}", card.getIdentifier()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.identifier").value(card.getIdentifier()))
+                .andExpect(header().string(ServerTimingConfig.HEADER, allOf(
+                        containsString("controller;desc=\"1 calls\";dur="),
+                        containsString("service;desc=\"1 calls\";dur="),
+                        containsString("json;desc=\"1 calls\";dur="),
+                        containsString("total;dur="))));
+        assertNull(RequestTimings.current());
+    }
+
+    @Test
+    void failedRequest_StillReportsRepositoryTime() throws Exception {
+        mockMvc.perform(get("/cards/{identifier}", "missing-timing-card"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTimingConfig.HEADER, allOf(
+                        containsString("card-db;"),
+                        containsString("json;"),
+                        containsString("total;dur="))));
+    }
+}
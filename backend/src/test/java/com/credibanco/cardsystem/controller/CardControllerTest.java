@@ -3,17 +3,36 @@ package com.credibanco.cardsystem.controller;
 import com.credibanco.cardsystem.dto.CreateCardRequest;
 import com.credibanco.cardsystem.dto.CreateCardResponse;
 import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.dto.CardImportResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.service.CardImportService;
 import com.credibanco.cardsystem.service.CardService;
+import com.credibanco.cardsystem.service.IdempotencyService;
+import com.credibanco.cardsystem.service.TransactionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -26,9 +45,24 @@ class CardControllerTest {
     @MockBean
     private CardService cardService;
 
+    @MockBean
+    private CardImportService cardImportService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private TransactionService transactionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void runWithoutIdempotencyKey() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation ->
+                new IdempotencyService.Result<>(invocation.<Supplier<?>>getArgument(4).get(), false));
+    }
+
     @Test
     void createCard_Success() throws Exception {
         CreateCardRequest request = CreateCardRequest.builder()
@@ -72,4 +106,67 @@ class CardControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void importCards_ReturnsSummary() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cards.csv", "text/csv",
+                "pan,holderName,documentNumber,cardType,phoneNumber\n1234567890123456,John Doe,123,CREDIT,\n".getBytes());
+
+        when(cardImportService.importCsv(any())).thenReturn(CardImportResponse.builder()
+                .totalRows(1)
+                .imported(1)
+                .rejected(0)
+                .build());
+
+        mockMvc.perform(multipart("/cards/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(1))
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void getCardTransactions_PassesFiltersAndReturnsCursorPage() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 2, 1, 0, 0);
+        when(transactionService.getCardTransactions("card-1", from, to, TransactionStatus.APPROVED, "cursor", 2))
+                .thenReturn(CursorPage.<CreateTransactionResponse>builder()
+                        .content(List.of(CreateTransactionResponse.builder()
+                                .referenceNumber("TXN1")
+                                .cardIdentifier("card-1")
+                                .totalAmount(new BigDecimal("10.00"))
+                                .status(TransactionStatus.APPROVED)
+                                .build()))
+                        .size(2)
+                        .numberOfElements(1)
+                        .hasNext(false)
+                        .build());
+
+        mockMvc.perform(get("/cards/{identifier}/transactions", "card-1")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-02-01T00:00:00")
+                        .param("status", "APPROVED")
+                        .param("after", "cursor")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].referenceNumber").value("TXN1"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getCardTransactions_PageTooLarge_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/cards/{identifier}/transactions", "card-1").param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(transactionService, never()).getCardTransactions(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getCardsAfter_SizeOutOfRange_ReturnsBadRequest() throws Exception {
+        for (String size : List.of("0", "-1", "101")) {
+            mockMvc.perform(get("/cards").param("after", "").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(cardService, never()).getCardsAfter(any(), anyInt());
+    }
+}
@@ -0,0 +1,62 @@
+package com.credibanco.cardsystem.controller;
+
+import com.credibanco.cardsystem.dto.CustomerCardSummary;
+import com.credibanco.cardsystem.dto.CustomerViewResponse;
+import com.credibanco.cardsystem.exception.CustomerNotFoundException;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CustomerController.class)
+class CustomerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @Test
+    void getCustomer_ReturnsCardsWithTotals() throws Exception {
+        when(customerService.getCustomer("12345678")).thenReturn(CustomerViewResponse.builder()
+                .documentNumber("12345678")
+                .holderName("John Doe")
+                .totalCards(1)
+                .totalTransactions(3)
+                .approvedAmount(new BigDecimal("30.00"))
+                .cards(List.of(CustomerCardSummary.builder()
+                        .identifier("card-1")
+                        .status(CardStatus.ENROLLED)
+                        .totalTransactions(3)
+                        .approvedAmount(new BigDecimal("30.00"))
+                        .recentTransactions(List.of())
+                        .build()))
+                .build());
+
+        mockMvc.perform(get("/customers/{documentNumber}", "12345678"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCards").value(1))
+                .andExpect(jsonPath("$.cards[0].identifier").value("card-1"))
+                .andExpect(jsonPath("$.cards[0].totalTransactions").value(3));
+    }
+
+    @Test
+    void getCustomer_UnknownDocument_ReturnsNotFound() throws Exception {
+        when(customerService.getCustomer("99999999")).thenThrow(new CustomerNotFoundException("Customer not found"));
+
+        mockMvc.perform(get("/customers/{documentNumber}", "99999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Customer not found"));
+    }
+}
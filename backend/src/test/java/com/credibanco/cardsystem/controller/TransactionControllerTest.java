@@ -0,0 +1,127 @@
+package com.credibanco.cardsystem.controller;
+
+import com.credibanco.cardsystem.dto.ExportFormat;
+import com.credibanco.cardsystem.service.IdempotencyService;
+import com.credibanco.cardsystem.service.TransactionBatchService;
+import com.credibanco.cardsystem.service.TransactionExportService;
+import com.credibanco.cardsystem.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransactionController.class)
+class TransactionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final String EXPORTED = "referenceNumber,cardIdentifier\nTXN-1,card-1\n";
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Test
+    void getTransactionsAfter_SizeOutOfRange_ReturnsBadRequest() throws Exception {
+        for (String size : List.of("0", "-1", "101")) {
+            mockMvc.perform(get("/transactions").param("after", "").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(transactionService, never()).getTransactionsAfter(any(), anyInt());
+    }
+
+    @Test
+    void exportTransactions_AcceptsGzip_ReturnsCompressedBody() throws Exception {
+        stubExport();
+
+        MvcResult started = mockMvc.perform(export().header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream body = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals(EXPORTED, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportTransactions_GzipRefusedByQValue_ReturnsPlainBody() throws Exception {
+        stubExport();
+
+        MvcResult started = mockMvc.perform(export().header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(EXPORTED));
+    }
+
+    @Test
+    void acceptsGzip_HonorsQValuesAndWildcard() {
+        assertTrue(TransactionController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(TransactionController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(TransactionController.acceptsGzip("identity, *;q=0.1"));
+        assertFalse(TransactionController.acceptsGzip(null));
+        assertFalse(TransactionController.acceptsGzip("gzip;q=0"));
+        assertFalse(TransactionController.acceptsGzip("gzip; q=0.000"));
+        assertFalse(TransactionController.acceptsGzip("gzip;q=0, *"));
+        assertFalse(TransactionController.acceptsGzip("gzip;q=invalid"));
+        assertFalse(TransactionController.acceptsGzip("deflate, br"));
+    }
+
+    private void stubExport() throws Exception {
+        when(transactionExportService.export(any(), any(), any(), eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(4);
+            output.write(EXPORTED.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+    }
+
+    private static MockHttpServletRequestBuilder export() {
+        return get("/transactions/export")
+                .param("from", "2025-01-01T00:00:00")
+                .param("to", "2025-02-01T00:00:00");
+    }
+}
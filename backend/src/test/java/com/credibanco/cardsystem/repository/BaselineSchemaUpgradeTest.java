@@ -0,0 +1,131 @@
+package com.credibanco.cardsystem.repository;
+
+import com.credibanco.cardsystem.dto.CardDetailsResponse;
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.service.CardService;
+import com.credibanco.cardsystem.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arranca la aplicación sobre una base creada por la versión inicial con ddl-auto=update (ids IDENTITY,
+ * sin columnas version ni pan_hash, sin idempotency_keys ni secuencias) y con filas existentes: Flyway la
+ * marca en V1, aplica desde V2 y Hibernate valida el resultado.
+ *
+ * <p>No extiende {@code IntegrationTest}: la base legada debe existir antes de que arranque el contexto, así que
+ * necesita su propia URL y por tanto su propio contexto.
+ */
+@SpringBootTest(properties = {
+        "app.audit.mode=SYNC",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+class BaselineSchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:baselineupgrade;DB_CLOSE_DELAY=-1";
+    private static final String LEGACY_CARD = "legacy-card-identifier";
+    private static final long LEGACY_MAX_CARD_ID = 500;
+    private static final long LEGACY_MAX_TRANSACTION_ID = 900;
+    private static final long LEGACY_MAX_AUDIT_ID = 300;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baselineDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy/h2-baseline-ddl-auto-update.sql"));
+            statement.execute("insert into cards (id, identifier, pan, holder_name, document_number, card_type, "
+                    + "phone_number, status, validation_number, created_at) values "
+                    + "(1, 'legacy-created', '4111111111111111', 'Legacy Holder', '1000', 'DEBIT', null, 'CREATED', '12', current_timestamp), "
+                    + "(" + LEGACY_MAX_CARD_ID + ", '" + LEGACY_CARD + "', '4222222222222222', 'Legacy Holder', '1000', "
+                    + "'CREDIT', '3001234567', 'ENROLLED', '34', current_timestamp)");
+            statement.execute("insert into transactions (id, reference_number, card_id, total_amount, purchase_address, "
+                    + "status, created_at) values (" + LEGACY_MAX_TRANSACTION_ID + ", 'TXN-LEGACY-1', "
+                    + LEGACY_MAX_CARD_ID + ", 25.00, 'Legacy Store', 'APPROVED', current_timestamp)");
+            statement.execute("insert into audit_logs (id, action, entity, entity_identifier, description, created_at) "
+                    + "values (" + LEGACY_MAX_AUDIT_ID + ", 'CREATE', 'Card', '" + LEGACY_CARD + "', 'Card created', current_timestamp)");
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void baselineDatabase_IsStampedAtV1AndUpgradedFromV2() {
+        List<Map<String, Object>> history = jdbcTemplate.queryForList(
+                "select \"version\", \"type\" from \"flyway_schema_history\" where \"version\" is not null "
+                        + "and \"success\" order by \"installed_rank\"");
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), history.stream().map(row -> row.get("version")).toList());
+        assertEquals("BASELINE", history.get(0).get("type"));
+    }
+
+    @Test
+    void legacyRows_AreUsableAfterTheUpgrade() {
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from cards where pan_hash is null", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from cards where version is null", Long.class));
+
+        CardDetailsResponse card = cardService.getCardDetails(LEGACY_CARD);
+        assertEquals(CardStatus.ENROLLED, card.getStatus());
+
+        // La versión inicializada en 0 hace que el guardado sea un UPDATE y no un INSERT
+        cardService.deactivateCard("legacy-created");
+        assertEquals(1, jdbcTemplate.queryForObject("select version from cards where identifier = 'legacy-created'",
+                Long.class));
+    }
+
+    // Las secuencias agrupadas arrancan en max(id) + 50: el primer bloque no repite ids IDENTITY existentes
+    @Test
+    void pooledIds_StartAboveTheLegacyIdentityIds() {
+        CreateCardResponse created = cardService.createCard(CreateCardRequest.builder()
+                .pan("4333333333333333")
+                .holderName("Upgraded Holder")
+                .documentNumber("2000")
+                .cardType(CardType.DEBIT)
+                .build());
+        CreateTransactionResponse purchase = transactionService.createTransaction(CreateTransactionRequest.builder()
+                .cardIdentifier(LEGACY_CARD)
+                .totalAmount(new BigDecimal("10.00"))
+                .purchaseAddress("Upgraded Store")
+                .build());
+
+        long cardId = jdbcTemplate.queryForObject("select id from cards where identifier = ?", Long.class,
+                created.getIdentifier());
+        long transactionId = jdbcTemplate.queryForObject("select id from transactions where reference_number = ?",
+                Long.class, purchase.getReferenceNumber());
+        assertTrue(cardId > LEGACY_MAX_CARD_ID, "id de tarjeta " + cardId);
+        assertTrue(transactionId > LEGACY_MAX_TRANSACTION_ID, "id de transacción " + transactionId);
+        long auditId = jdbcTemplate.queryForObject("select min(id) from audit_logs where id <> ?", Long.class,
+                LEGACY_MAX_AUDIT_ID);
+        assertTrue(auditId > LEGACY_MAX_AUDIT_ID, "id de auditoría " + auditId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.credibanco.cardsystem.repository;
+
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class BulkInsertThroughputTest extends IntegrationTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAll_UsesJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Card> cards = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long sequence = TestCards.next();
+            String pan = TestCards.pan("4100", sequence);
+            cards.add(Card.builder()
+                    .identifier(CardUtils.generateIdentifier(pan, "BULK" + sequence))
+                    .pan(pan)
+                    .holderName("Bulk Holder " + i)
+                    .documentNumber("BULK" + sequence)
+                    .cardType(CardType.DEBIT)
+                    .status(CardStatus.ENROLLED)
+                    .validationNumber("001")
+                    .build());
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> cardRepository.saveAll(cards));
+        double cardsPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+        long cardStatements = statistics.getPrepareStatementCount();
+
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .cardId(cards.get(i).getId())
+                    .referenceNumber("BULK" + UUID.randomUUID())
+                    .totalAmount(BigDecimal.TEN)
+                    .purchaseAddress("Bulk Store")
+                    .status(TransactionStatus.APPROVED)
+                    .build());
+        }
+
+        statistics.clear();
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(transactions));
+        double transactionsPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+        long transactionStatements = statistics.getPrepareStatementCount();
+
+        log.info("Inserción masiva: {} tarjetas/s ({} sentencias), {} transacciones/s ({} sentencias)",
+                Math.round(cardsPerSecond), cardStatements, Math.round(transactionsPerSecond), transactionStatements);
+
+        // Con IDENTITY serían ROWS sentencias; con secuencia agrupada y lotes JDBC son unas pocas por lote
+        assertTrue(cardStatements < ROWS / 10, "Card inserts were not batched: " + cardStatements);
+        assertTrue(transactionStatements < ROWS / 10, "Transaction inserts were not batched: " + transactionStatements);
+    }
+}
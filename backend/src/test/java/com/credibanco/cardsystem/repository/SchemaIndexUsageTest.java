@@ -0,0 +1,129 @@
+package com.credibanco.cardsystem.repository;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.util.SqlStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN que el esquema migrado por Flyway sirve las consultas de los servicios con sus índices.
+ * El SQL explicado es el que Hibernate prepara al ejecutar cada método de repositorio, capturado con
+ * {@link SqlStatementCounter}; los parámetros se enlazan en el orden de sus marcadores.
+ */
+class SchemaIndexUsageTest extends IntegrationTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void migrationsAreAppliedInOrder() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null and \"success\" order by \"installed_rank\"",
+                String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5"), versions);
+    }
+
+    @Test
+    void cardHistory_UsesCardIdCreatedAtIndex() {
+        assertUsesIndex("idx_transactions_card_id_created_at",
+                sql(() -> transactionRepository.findCardHistory(1L, FROM, TO, TransactionStatus.APPROVED,
+                        PageRequest.ofSize(20))),
+                1L, FROM, TO, "APPROVED", "APPROVED", 21);
+        assertUsesIndex("idx_transactions_card_id_created_at",
+                sql(() -> transactionRepository.findCardHistoryAfter(1L, FROM, TO, null, TO, 100L,
+                        PageRequest.ofSize(20))),
+                1L, FROM, TO, TO, TO, 100L, null, null, 21);
+    }
+
+    @Test
+    void keysetPageAndDailyCount_UseCreatedAtIdIndex() {
+        assertUsesIndex("idx_transactions_created_at_id",
+                sql(() -> transactionRepository.findSliceAfter(TO, 100L, PageRequest.ofSize(20))),
+                TO, TO, 100L, 21);
+        assertUsesIndex("idx_transactions_created_at_id",
+                sql(() -> transactionRepository.countCreatedBetween(FROM, TO)),
+                FROM, TO);
+    }
+
+    // El filtro opcional (? is null or status = ?) no acota un índice por estado: el rango de fechas
+    // recorre (created_at, id), que además entrega el orden de la exportación
+    @Test
+    void export_UsesCreatedAtIdIndexInOrder() {
+        String plan = assertUsesIndex("idx_transactions_created_at_id",
+                sql(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    try (Stream<CreateTransactionResponse> rows =
+                                 transactionRepository.streamForExport(FROM, TO, TransactionStatus.APPROVED)) {
+                        rows.forEach(row -> { });
+                    }
+                })),
+                FROM, TO, "APPROVED", "APPROVED");
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void customerView_UsesDocumentAndCardIndexes() {
+        assertUsesIndex("idx_cards_document_number",
+                sql(() -> cardRepository.findByDocumentNumberOrderByCreatedAtDesc("1000000001")),
+                "1000000001");
+        // Las recientes y los totales se leen por tarjeta, sin recorrer las transacciones de otros clientes.
+        // El corte de cada tarjeta sale de idx_transactions_card_id_created_at; para el join H2 puede elegir
+        // el índice propio de la clave foránea (sólo card_id), que en MySQL es ese mismo índice compuesto
+        String recent = assertUsesIndex("idx_transactions_card_id_created_at",
+                sql(() -> transactionRepository.findRecentByCardIdIn(List.of(1L, 2L), 4)),
+                4, 1L, 2L);
+        String join = recent.substring(recent.indexOf("INNER JOIN")).toLowerCase();
+        assertTrue(join.contains(": card_id = k1_0.cardid") && !join.contains("tablescan"),
+                () -> "Se esperaba una búsqueda por card_id en el join:\n" + recent);
+        String totals = jdbcTemplate.queryForObject("explain " + sql(() -> transactionRepository.summarizeByCardIdIn(
+                List.of(1L, 2L))), String.class, 1L, 2L);
+        assertTrue(totals.toLowerCase().contains("card_id in(") && !totals.toLowerCase().contains("tablescan"),
+                () -> "Se esperaba una búsqueda por card_id:\n" + totals);
+    }
+
+    @Test
+    void dashboardReconciliation_UsesStatusIndexes() {
+        assertUsesIndex("idx_cards_status", sql(() -> cardRepository.countByStatus()));
+        assertUsesIndex("idx_transactions_status_created_at", sql(() -> transactionRepository.summarizeByStatus()));
+    }
+
+    private String sql(Runnable query) {
+        List<String> statements = sqlStatementCounter.capture(query);
+        assertEquals(1, statements.size(), () -> "Se esperaba una sola sentencia: " + statements);
+        return statements.get(0);
+    }
+
+    private String assertUsesIndex(String index, String sql, Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+        assertTrue(plan.toLowerCase().contains(index), () -> "Se esperaba " + index + " en el plan:\n" + plan);
+        return plan;
+    }
+}
@@ -0,0 +1,97 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.AuditProperties;
+import com.credibanco.cardsystem.model.AuditLog;
+import com.credibanco.cardsystem.repository.AuditLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditServiceTest {
+
+    private static final AuditProperties.Mode[] QUEUED_MODES =
+            {AuditProperties.Mode.AFTER_COMMIT, AuditProperties.Mode.FIRE_AND_FORGET};
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private AuditWriter auditWriter;
+
+    private final AuditProperties properties = new AuditProperties();
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(auditWriter.offer(any(AuditLog.class))).thenReturn(true);
+        auditService = new AuditService(auditLogRepository, auditWriter, properties);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void queuedModes_RolledBackTransaction_AreNotAudited() {
+        for (AuditProperties.Mode mode : QUEUED_MODES) {
+            properties.setMode(mode);
+
+            auditService.logAction("CREATE", "Card", "card-1", "Card created");
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(auditWriter, never()).offer(any(AuditLog.class));
+        }
+    }
+
+    @Test
+    void queuedModes_CommittedTransaction_AreEnqueuedAfterCommit() {
+        for (AuditProperties.Mode mode : QUEUED_MODES) {
+            properties.setMode(mode);
+            clearInvocations(auditWriter);
+
+            auditService.logAction("CREATE", "Card", "card-1", "Card created");
+            verify(auditWriter, never()).offer(any(AuditLog.class));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+
+            verify(auditWriter).offer(any(AuditLog.class));
+        }
+    }
+
+    @Test
+    void sync_WritesInsideTheTransaction() {
+        properties.setMode(AuditProperties.Mode.SYNC);
+
+        auditService.logAction("CREATE", "Card", "card-1", "Card created");
+
+        verify(auditLogRepository).save(any(AuditLog.class));
+        verify(auditWriter, never()).offer(any(AuditLog.class));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
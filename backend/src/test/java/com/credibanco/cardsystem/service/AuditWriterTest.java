@@ -0,0 +1,146 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.AuditProperties;
+import com.credibanco.cardsystem.model.AuditLog;
+import com.credibanco.cardsystem.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicBoolean interruptOnFirstFlush = new AtomicBoolean();
+    private SimpleMeterRegistry meterRegistry;
+    private AuditWriter auditWriter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AuditProperties properties = new AuditProperties();
+        properties.setBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        properties.setQueueCapacity(100);
+
+        lenient().when(auditLogRepository.saveAll(any(Collection.class)))
+                .thenAnswer(invocation -> {
+                    Collection<AuditLog> batch = invocation.getArgument(0);
+                    batchSizes.add(batch.size());
+                    if (interruptOnFirstFlush.compareAndSet(true, false)) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ArrayList<>(batch);
+                });
+
+        meterRegistry = new SimpleMeterRegistry();
+        auditWriter = new AuditWriter(auditLogRepository, transactionManager, properties, meterRegistry);
+    }
+
+    @Test
+    void stop_DrainsQueueInBatches() {
+        auditWriter.start();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(auditWriter.offer(auditLog(i)));
+        }
+        auditWriter.stop();
+
+        assertEquals(25, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(25.0, meterRegistry.counter("audit.written").count());
+        assertEquals(0.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    void stop_WhileOffering_WritesEveryAcceptedRecord() throws Exception {
+        auditWriter.start();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicBoolean offering = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            producers.submit(() -> {
+                started.countDown();
+                while (offering.get()) {
+                    if (auditWriter.offer(auditLog(0))) {
+                        accepted.incrementAndGet();
+                    } else if (!auditWriter.isRunning()) {
+                        return;
+                    }
+                }
+            });
+        }
+        started.await();
+        Thread.sleep(20);
+
+        auditWriter.stop();
+        offering.set(false);
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(accepted.get(), batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    void interruptedWorker_StopsAndStopWritesThePendingRecords() {
+        interruptOnFirstFlush.set(true);
+        auditWriter.start();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(auditWriter.offer(auditLog(i)));
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            while (auditWriter.isRunning()) {
+                Thread.sleep(5);
+            }
+            auditWriter.stop();
+        });
+
+        assertFalse(auditWriter.offer(auditLog(26)));
+        assertEquals(25, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void offer_WhenStopped_ReturnsFalse() {
+        assertFalse(auditWriter.offer(auditLog(1)));
+        assertEquals(1.0, meterRegistry.counter("audit.queue.rejected").count());
+    }
+
+    private AuditLog auditLog(int index) {
+        return AuditLog.builder()
+                .action("CREATE")
+                .entity("Card")
+                .entityIdentifier("card-" + index)
+                .description("test")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CancellationIndexProperties;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellableTransactionIndexTest {
+
+    private CancellationIndexProperties properties;
+    private CancellableTransactionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CancellationIndexProperties();
+        index = new CancellableTransactionIndex(properties);
+    }
+
+    @Test
+    void find_ApprovedTransaction_ReturnsEntryUntilCancelled() {
+        index.approved(transaction(1L, "TXN1", LocalDateTime.now()), "card-1");
+
+        CancellableTransactionIndex.Entry entry = index.find("TXN1").orElseThrow();
+        assertEquals(1L, entry.id());
+        assertEquals("card-1", entry.cardIdentifier());
+        assertEquals(0, new BigDecimal("25.00").compareTo(entry.totalAmount()));
+
+        index.cancelled("TXN1");
+
+        assertTrue(index.find("TXN1").isEmpty());
+    }
+
+    @Test
+    void find_TransactionOlderThanRetention_IsDropped() {
+        index.approved(transaction(1L, "OLD", LocalDateTime.now().minusMinutes(7)), "card-1");
+        index.approved(transaction(2L, "RECENT", LocalDateTime.now().minusMinutes(4)), "card-1");
+
+        assertTrue(index.find("OLD").isEmpty());
+        assertTrue(index.find("RECENT").isPresent());
+    }
+
+    @Test
+    void isAuthoritative_DisabledByDefault() {
+        index.coverFrom(System.currentTimeMillis() - CancellableTransactionIndex.RETENTION.toMillis());
+
+        assertFalse(index.isAuthoritative());
+    }
+
+    @Test
+    void isAuthoritative_OnlyAfterCoveringAFullWindow() {
+        properties.setAuthoritative(true);
+        assertFalse(index.isAuthoritative());
+
+        index.coverFrom(System.currentTimeMillis());
+        assertFalse(index.isAuthoritative());
+
+        index.coverFrom(System.currentTimeMillis() - CancellableTransactionIndex.RETENTION.toMillis());
+        assertTrue(index.isAuthoritative());
+
+        properties.setAuthoritative(false);
+        assertFalse(index.isAuthoritative());
+    }
+
+    @Test
+    void isExpired_MatchesFiveMinuteRule() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertFalse(CancellableTransactionIndex.isExpired(now.minusMinutes(5).minusSeconds(59), now));
+        assertTrue(CancellableTransactionIndex.isExpired(now.minusMinutes(6), now));
+    }
+
+    private static Transaction transaction(Long id, String referenceNumber, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .id(id)
+                .cardId(10L)
+                .referenceNumber(referenceNumber)
+                .totalAmount(new BigDecimal("25.00"))
+                .purchaseAddress("Index Store")
+                .status(TransactionStatus.APPROVED)
+                .createdAt(createdAt)
+                .build();
+    }
+}
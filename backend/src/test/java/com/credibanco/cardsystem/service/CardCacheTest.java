@@ -0,0 +1,87 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CardCacheProperties;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CardCache cardCache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, CardCache.Snapshot> loader = identifier -> {
+        loads.incrementAndGet();
+        return identifier.startsWith("missing") ? null
+                : new CardCache.Snapshot(1L, identifier, "1234********3456", "Cached Holder", "DOC1", CardType.DEBIT,
+                        null, CardStatus.ENROLLED, null, 0L);
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardCache = new CardCache(new CardCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void get_RepeatedIdentifier_LoadsOnce() {
+        CardCache.Snapshot first = cardCache.get("card-1", loader);
+        CardCache.Snapshot second = cardCache.get("card-1", loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_MissingCard_IsNotCached() {
+        assertNull(cardCache.get("missing-1", loader));
+        assertNull(cardCache.get("missing-1", loader));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void snapshot_IsDetachedFromTheEntity() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Card card = Card.builder().id(7L).identifier("card-3").pan("1234567890123456").holderName("John Doe")
+                .documentNumber("DOC3").cardType(CardType.CREDIT).phoneNumber("+573001234567")
+                .status(CardStatus.ENROLLED).validationNumber("123").createdAt(createdAt).version(2L).build();
+        CardCache.Snapshot snapshot = CardCache.Snapshot.of(card);
+
+        card.setStatus(CardStatus.INACTIVE);
+
+        assertEquals(new CardCache.Snapshot(7L, "card-3", "1234********3456", "John Doe", "DOC3", CardType.CREDIT,
+                "+573001234567", CardStatus.ENROLLED, createdAt, 2L), snapshot);
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        cardCache.get("card-2", loader);
+        cardCache.invalidate("card-2");
+        cardCache.get("card-2", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_DoesNotCacheTheLoadedCard() {
+        cardCache.get("card-4", identifier -> {
+            cardCache.invalidate(identifier);
+            return loader.apply(identifier);
+        });
+        cardCache.get("card-4", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,287 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CancelTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.exception.ConcurrentUpdateException;
+import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.exception.TransactionCancellationException;
+import com.credibanco.cardsystem.exception.TransactionNotFoundException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardConcurrencyTest extends IntegrationTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardConcurrencyGuard concurrencyGuard;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CancellableTransactionIndex cancellableIndex;
+
+    @Test
+    void cancelTransaction_ConcurrentCancels_ExactlyOneSucceeds() throws Exception {
+        Card card = saveCard(CardStatus.ENROLLED);
+        CreateTransactionResponse created = transactionService.createTransaction(purchase(card));
+        CancelTransactionRequest cancel = new CancelTransactionRequest(created.getReferenceNumber());
+
+        List<Object> outcomes = runConcurrently(THREADS, i -> {
+            transactionService.cancelTransaction(cancel);
+            return "OK";
+        });
+
+        assertEquals(1, outcomes.stream().filter("OK"::equals).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter(TransactionCancellationException.class::isInstance).count());
+        assertEquals(TransactionStatus.CANCELLED,
+                transactionRepository.findByReferenceNumber(created.getReferenceNumber()).orElseThrow().getStatus());
+    }
+
+    // Sin afinidad por tarjeta otra instancia pudo aprobar la referencia: la ausencia en el índice se consulta
+    @Test
+    void cancelTransaction_ReferenceMissingFromIndex_IsLookedUpInTheDatabase() {
+        Card card = saveCard(CardStatus.ENROLLED);
+        Transaction approvedElsewhere = transactionRepository.save(Transaction.builder()
+                .cardId(card.getId())
+                .referenceNumber("TXN-OTHER-NODE-" + card.getId())
+                .totalAmount(new BigDecimal("10.00"))
+                .purchaseAddress("Concurrency Store")
+                .status(TransactionStatus.APPROVED)
+                .build());
+        cancellableIndex.coverFrom(System.currentTimeMillis() - CancellableTransactionIndex.RETENTION.toMillis());
+        try {
+            transactionService.cancelTransaction(new CancelTransactionRequest(approvedElsewhere.getReferenceNumber()));
+            assertThrows(TransactionNotFoundException.class, () -> transactionService.cancelTransaction(
+                    new CancelTransactionRequest("TXN-UNKNOWN-" + card.getId())));
+        } finally {
+            cancellableIndex.startCoverage();
+        }
+
+        assertEquals(TransactionStatus.CANCELLED,
+                transactionRepository.findById(approvedElsewhere.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void createTransaction_ConcurrentWithDeactivate_NoPurchaseAfterDeactivation() throws Exception {
+        Card card = saveCard(CardStatus.ENROLLED);
+        CreateTransactionRequest request = purchase(card);
+        AtomicInteger approvedAfterDeactivation = new AtomicInteger();
+        AtomicLong deactivatedAt = new AtomicLong(Long.MAX_VALUE);
+
+        List<Object> outcomes = runConcurrently(THREADS, i -> {
+            if (i == THREADS / 2) {
+                cardService.deactivateCard(card.getIdentifier());
+                deactivatedAt.set(System.nanoTime());
+                return "DEACTIVATED";
+            }
+            boolean startedAfterDeactivation = System.nanoTime() > deactivatedAt.get();
+            transactionService.createTransaction(request);
+            if (startedAfterDeactivation) {
+                approvedAfterDeactivation.incrementAndGet();
+            }
+            return "OK";
+        });
+
+        long approved = outcomes.stream().filter("OK"::equals).count();
+        long rejected = outcomes.stream().filter(InvalidCardStatusException.class::isInstance).count();
+        assertEquals(THREADS - 1, approved + rejected);
+        assertEquals(0, approvedAfterDeactivation.get());
+        assertEquals(approved, countTransactions(card));
+        assertEquals(CardStatus.INACTIVE, cardRepository.findById(card.getId()).orElseThrow().getStatus());
+    }
+
+    // Otro nodo desactiva la tarjeta sin pasar por el cerrojo por franjas ni invalidar el caché local
+    @Test
+    void createTransaction_CardDeactivatedByAnotherNode_IsRejected() {
+        Card card = saveCard(CardStatus.ENROLLED);
+        transactionService.createTransaction(purchase(card));
+
+        deactivateOnAnotherNode(card);
+
+        assertThrows(InvalidCardStatusException.class, () -> transactionService.createTransaction(purchase(card)));
+        assertEquals(1, countTransactions(card));
+    }
+
+    // La compra confirma la versión con un UPDATE que bloquea la fila: la desactivación de otro nodo espera a
+    // que la compra confirme y ya no puede quedar por delante de ella
+    @Test
+    void createTransaction_DeactivationOnAnotherNodeDuringPurchase_WaitsForThePurchase() {
+        Card card = saveCard(CardStatus.ENROLLED);
+        transactionService.createTransaction(purchase(card));
+        TransactionTemplate purchaseTransaction = new TransactionTemplate(transactionManager);
+        List<CompletableFuture<Void>> deactivation = new ArrayList<>();
+
+        purchaseTransaction.executeWithoutResult(status -> {
+            transactionService.createTransaction(purchase(card));
+            deactivation.add(CompletableFuture.runAsync(() -> deactivateOnAnotherNode(card)));
+            assertThrows(TimeoutException.class, () -> deactivation.get(0).get(300, TimeUnit.MILLISECONDS));
+        });
+        deactivation.get(0).join();
+
+        assertEquals(2, countTransactions(card));
+        assertThrows(InvalidCardStatusException.class, () -> transactionService.createTransaction(purchase(card)));
+    }
+
+    @Test
+    void createTransaction_ManyCardsInParallel_AllSucceed() throws Exception {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            cards.add(saveCard(CardStatus.ENROLLED));
+        }
+
+        List<Object> outcomes = runConcurrently(THREADS * 4, i -> transactionService.createTransaction(purchase(cards.get(i % cards.size()))));
+
+        assertTrue(outcomes.stream().allMatch(CreateTransactionResponse.class::isInstance), outcomes.toString());
+        for (Card card : cards) {
+            assertEquals(THREADS * 4 / cards.size(), countTransactions(card));
+        }
+    }
+
+    @Test
+    void staleCardUpdate_IsRejectedByVersion() {
+        Card card = saveCard(CardStatus.CREATED);
+        Card first = cardRepository.findById(card.getId()).orElseThrow();
+        Card stale = cardRepository.findById(card.getId()).orElseThrow();
+
+        first.setStatus(CardStatus.ENROLLED);
+        cardRepository.save(first);
+
+        stale.setStatus(CardStatus.INACTIVE);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cardRepository.save(stale));
+    }
+
+    @Test
+    void execute_RetriesOptimisticFailuresUpToLimit() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = concurrencyGuard.execute("retry-card", () -> {
+            if (attempts.incrementAndGet() < 2) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+
+        AtomicInteger exhausted = new AtomicInteger();
+        assertThrows(ConcurrentUpdateException.class, () -> concurrencyGuard.run("retry-card", () -> {
+            exhausted.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        }));
+        assertEquals(3, exhausted.get());
+    }
+
+    private interface Task {
+        Object call(int index) throws Exception;
+    }
+
+    private List<Object> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                Callable<Object> callable = () -> {
+                    start.await();
+                    try {
+                        return task.call(index);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Card saveCard(CardStatus status) {
+        String pan = TestCards.pan("4111", TestCards.next());
+        return cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "CC1"))
+                .pan(pan)
+                .holderName("Concurrency Holder")
+                .documentNumber("CC1")
+                .cardType(CardType.DEBIT)
+                .status(status)
+                .validationNumber("123")
+                .build());
+    }
+
+    private void deactivateOnAnotherNode(Card card) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Card current = cardRepository.findById(card.getId()).orElseThrow();
+            current.setStatus(CardStatus.INACTIVE);
+            cardRepository.save(current);
+        });
+    }
+
+    private CreateTransactionRequest purchase(Card card) {
+        return CreateTransactionRequest.builder()
+                .cardIdentifier(card.getIdentifier())
+                .totalAmount(new BigDecimal("10.00"))
+                .purchaseAddress("Concurrency Store")
+                .build();
+    }
+
+    private long countTransactions(Card card) {
+        return jdbcTemplate.queryForObject("select count(*) from transactions where card_id = ?", Long.class,
+                card.getId());
+    }
+}
@@ -0,0 +1,121 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CardImportReject;
+import com.credibanco.cardsystem.dto.CardImportResponse;
+import com.credibanco.cardsystem.exception.CardImportException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.repository.AuditLogRepository;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class CardImportServiceTest extends IntegrationTest {
+
+    private static final String HEADER = "pan,holderName,documentNumber,cardType,phoneNumber\n";
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private CardImportService cardImportService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Test
+    void importCsv_LargeFile_ImportsAllRowsInBatches() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        List<Long> sequences = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long sequence = TestCards.next();
+            sequences.add(sequence);
+            csv.append(TestCards.pan("7", sequence)).append(",Import Holder ").append(i)
+                    .append(",IMP").append(sequence).append(i % 2 == 0 ? ",CREDIT" : ",debit").append(",+573001234567\n");
+        }
+
+        long cardsBefore = cardRepository.count();
+        long auditsBefore = countImportAudits();
+
+        CardImportResponse response = cardImportService.importCsv(toStream(csv.toString()));
+
+        log.info("Importación CSV: {} tarjetas en {} ms ({} tarjetas/s)",
+                response.getImported(), response.getDurationMillis(), Math.round(response.getCardsPerSecond()));
+
+        assertEquals(ROWS, response.getTotalRows());
+        assertEquals(ROWS, response.getImported());
+        assertEquals(0, response.getRejected());
+        assertEquals(cardsBefore + ROWS, cardRepository.count());
+        assertEquals(auditsBefore + ROWS, countImportAudits());
+
+        long sequence = sequences.get(42);
+        String pan = TestCards.pan("7", sequence);
+        Card card = cardRepository.findByIdentifier(CardUtils.generateIdentifier(pan, "IMP" + sequence)).orElseThrow();
+        assertEquals(pan, card.getPan());
+        assertNotNull(card.getValidationNumber());
+    }
+
+    @Test
+    void importCsv_RejectsInvalidAndDuplicateRows() {
+        String existingPan = TestCards.pan("71", TestCards.next());
+        cardImportService.importCsv(toStream(HEADER + existingPan + ",Existing,EX1,CREDIT,\n"));
+
+        String quotedPan = TestCards.pan("71", TestCards.next());
+        String csv = HEADER
+                + quotedPan + ",\"Doe, Jane\",DOC2,CREDIT,\n"
+                + existingPan + ",Again,EX1,CREDIT,\n"
+                + quotedPan + ",Dup In File,DOC3,DEBIT,\n"
+                + "12345,Short Pan,DOC4,CREDIT,\n"
+                + TestCards.pan("71", TestCards.next()) + ",Bad Type,DOC5,GOLD,\n"
+                + TestCards.pan("71", TestCards.next()) + ",Missing Columns\n"
+                + "\n"
+                + TestCards.pan("71", TestCards.next()) + ",Valid Holder,DOC7,DEBIT,+573001234567\n";
+
+        CardImportResponse response = cardImportService.importCsv(toStream(csv));
+
+        assertEquals(7, response.getTotalRows());
+        assertEquals(2, response.getImported());
+        assertEquals(5, response.getRejected());
+        assertFalse(response.isRejectsTruncated());
+
+        List<String> reasons = response.getRejects().stream().map(CardImportReject::getReason).toList();
+        assertTrue(reasons.contains("Card with this PAN already exists"), reasons.toString());
+        assertTrue(reasons.contains("Duplicate PAN in file"), reasons.toString());
+        assertTrue(reasons.contains("PAN must be exactly 16 digits"), reasons.toString());
+        assertTrue(reasons.contains("Invalid card type: GOLD"), reasons.toString());
+        assertTrue(reasons.contains("Expected 5 columns but found 2"), reasons.toString());
+        assertTrue(response.getRejects().stream().anyMatch(reject -> reject.getLine() == 3));
+
+        Card quoted = cardRepository.findByIdentifier(CardUtils.generateIdentifier(quotedPan, "DOC2")).orElseThrow();
+        assertEquals("Doe, Jane", quoted.getHolderName());
+    }
+
+    @Test
+    void importCsv_InvalidHeader_ThrowsException() {
+        assertThrows(CardImportException.class, () -> cardImportService.importCsv(toStream("pan,name\n")));
+        assertThrows(CardImportException.class, () -> cardImportService.importCsv(toStream("")));
+    }
+
+    // Las filas importadas se auditan con el PAN enmascarado; las de esta clase empiezan por 7000
+    private long countImportAudits() {
+        return auditLogRepository.findAll().stream()
+                .filter(audit -> "IMPORT".equals(audit.getAction()) && audit.getDescription().contains("7000****"))
+                .count();
+    }
+
+    private static ByteArrayInputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.credibanco.cardsystem.service;
 
+import com.credibanco.cardsystem.dto.CardDetailsResponse;
 import com.credibanco.cardsystem.dto.CreateCardRequest;
 import com.credibanco.cardsystem.dto.CreateCardResponse;
 import com.credibanco.cardsystem.dto.EnrollCardRequest;
@@ -17,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,6 +34,18 @@ class CardServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private CardCache cardCache;
+
+    @Mock
+    private CardConcurrencyGuard concurrencyGuard;
+
+    @Mock
+    private DashboardMetrics dashboardMetrics;
+
+    @Mock
+    private PanIndex panIndex;
+
     @InjectMocks
     private CardService cardService;
 
@@ -40,6 +54,13 @@ class CardServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(concurrencyGuard.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(concurrencyGuard).run(anyString(), any());
+
         createCardRequest = CreateCardRequest.builder()
                 .pan("1234567890123456")
                 .holderName("John Doe")
@@ -63,7 +84,9 @@ class CardServiceTest {
 
     @Test
     void createCard_Success() {
-        when(cardRepository.existsByPan(anyString())).thenReturn(false);
+        when(panIndex.hash(createCardRequest.getPan())).thenReturn("pan-hash");
+        when(panIndex.mightExist("pan-hash")).thenReturn(true);
+        when(cardRepository.existsByPanHash("pan-hash")).thenReturn(false);
         when(cardRepository.save(any(Card.class))).thenReturn(card);
 
         CreateCardResponse response = cardService.createCard(createCardRequest);
@@ -73,21 +96,36 @@ class CardServiceTest {
         assertEquals("1234********3456", response.getMaskedPan());
         assertNotNull(response.getValidationNumber());
 
-        verify(cardRepository).existsByPan(createCardRequest.getPan());
-        verify(cardRepository).save(any(Card.class));
+        verify(cardRepository).existsByPanHash("pan-hash");
+        verify(cardRepository).save(argThat(saved -> "pan-hash".equals(saved.getPanHash())));
+        verify(panIndex).add("pan-hash");
         verify(auditService).logAction(eq("CREATE"), eq("Card"), anyString(), anyString());
     }
 
     @Test
     void createCard_PanAlreadyExists_ThrowsException() {
-        when(cardRepository.existsByPan(anyString())).thenReturn(true);
+        when(panIndex.hash(createCardRequest.getPan())).thenReturn("pan-hash");
+        when(panIndex.mightExist("pan-hash")).thenReturn(true);
+        when(cardRepository.existsByPanHash("pan-hash")).thenReturn(true);
 
         assertThrows(InvalidCardStatusException.class, () -> cardService.createCard(createCardRequest));
 
-        verify(cardRepository).existsByPan(createCardRequest.getPan());
+        verify(cardRepository).existsByPanHash("pan-hash");
         verify(cardRepository, never()).save(any(Card.class));
     }
 
+    @Test
+    void createCard_PanDefinitelyNew_SkipsDatabaseLookup() {
+        when(panIndex.hash(createCardRequest.getPan())).thenReturn("pan-hash");
+        when(panIndex.mightExist("pan-hash")).thenReturn(false);
+        when(cardRepository.save(any(Card.class))).thenReturn(card);
+
+        cardService.createCard(createCardRequest);
+
+        verify(cardRepository, never()).existsByPanHash(anyString());
+        verify(cardRepository).save(any(Card.class));
+    }
+
     @Test
     void enrollCard_Success() {
         EnrollCardRequest enrollRequest = EnrollCardRequest.builder()
@@ -135,6 +173,18 @@ class CardServiceTest {
         verify(cardRepository, never()).save(any(Card.class));
     }
 
+    @Test
+    void getCardDetails_ServedFromCache() {
+        card.setStatus(CardStatus.ENROLLED);
+        when(cardCache.get(eq("test-identifier"), any())).thenReturn(CardCache.Snapshot.of(card));
+
+        CardDetailsResponse response = cardService.getCardDetails("test-identifier");
+
+        assertEquals("1234********3456", response.getMaskedPan());
+        assertEquals(CardStatus.ENROLLED, response.getStatus());
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     void deactivateCard_Success() {
         card.setStatus(CardStatus.ENROLLED);
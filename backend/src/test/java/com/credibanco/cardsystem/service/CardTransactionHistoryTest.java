@@ -0,0 +1,124 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.exception.CardNotFoundException;
+import com.credibanco.cardsystem.exception.InvalidDateRangeException;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.util.PageCursor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CardTransactionHistoryTest extends IntegrationTest {
+
+    // La latencia de una página sobre 100.000 transacciones se mide en CardHistoryBenchmark
+    private static final int HISTORY = 5_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long cardId;
+    private String identifier;
+
+    @BeforeAll
+    void loadBusyCard() {
+        // Una sola tarjeta: todas las transacciones generadas son suyas. Sus ids se reservan por encima de
+        // cualquier tarjeta ya escrita en la base compartida
+        long lastCardId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cards", Long.class);
+        generator.generate(1, HISTORY);
+        Map<String, Object> card = jdbcTemplate.queryForMap("select id, identifier from cards where id > ?", lastCardId);
+        cardId = ((Number) card.get("ID")).longValue();
+        identifier = (String) card.get("IDENTIFIER");
+    }
+
+    @Test
+    void pages_FollowTheCursorNewestFirstWithoutGapsOrRepeats() {
+        Set<String> seen = new HashSet<>();
+        LocalDateTime previous = LocalDateTime.MAX;
+        String after = null;
+        for (int page = 0; page < 20; page++) {
+            CursorPage<CreateTransactionResponse> result = transactionService.getCardTransactions(
+                    identifier, null, null, null, after, 50);
+            assertEquals(50, result.getNumberOfElements());
+            for (CreateTransactionResponse transaction : result.getContent()) {
+                assertEquals(identifier, transaction.getCardIdentifier());
+                assertFalse(transaction.getCreatedAt().isAfter(previous));
+                assertTrue(seen.add(transaction.getReferenceNumber()));
+                previous = transaction.getCreatedAt();
+            }
+            after = result.getNextCursor();
+        }
+        assertEquals(1000, seen.size());
+    }
+
+    @Test
+    void filters_ReturnExactlyTheMatchingRows() {
+        LocalDateTime to = jdbcTemplate.queryForObject("select max(created_at) from transactions where card_id = ?",
+                Timestamp.class, cardId).toLocalDateTime();
+        LocalDateTime from = to.minusDays(10);
+        long expected = jdbcTemplate.queryForObject("select count(*) from transactions where card_id = ? "
+                + "and created_at >= ? and created_at < ? and status = 'CANCELLED'", Long.class,
+                cardId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        long found = 0;
+        String after = null;
+        do {
+            CursorPage<CreateTransactionResponse> result = transactionService.getCardTransactions(
+                    identifier, from, to, TransactionStatus.CANCELLED, after, 100);
+            for (CreateTransactionResponse transaction : result.getContent()) {
+                assertEquals(TransactionStatus.CANCELLED, transaction.getStatus());
+                assertFalse(transaction.getCreatedAt().isBefore(from));
+                assertTrue(transaction.getCreatedAt().isBefore(to));
+            }
+            found += result.getNumberOfElements();
+            after = result.getNextCursor();
+        } while (after != null);
+
+        assertTrue(expected > 0);
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void deepPage_ContinuesRightAfterTheCursor() {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList("select created_at, id, reference_number "
+                + "from transactions where card_id = ? order by created_at desc, id desc offset " + HISTORY / 2
+                + " rows fetch next 51 rows only", cardId);
+        String after = new PageCursor(((Timestamp) expected.get(0).get("CREATED_AT")).toLocalDateTime(),
+                ((Number) expected.get(0).get("ID")).longValue()).encode();
+
+        CursorPage<CreateTransactionResponse> result = transactionService.getCardTransactions(
+                identifier, null, null, null, after, 50);
+
+        assertEquals(expected.stream().skip(1).map(row -> row.get("REFERENCE_NUMBER")).toList(),
+                result.getContent().stream().map(CreateTransactionResponse::getReferenceNumber).toList());
+    }
+
+    @Test
+    void invalidRequests_AreRejected() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(InvalidDateRangeException.class,
+                () -> transactionService.getCardTransactions(identifier, now, now, null, null, 10));
+        assertThrows(CardNotFoundException.class,
+                () -> transactionService.getCardTransactions("missing-card", null, null, null, null, 10));
+    }
+}
@@ -0,0 +1,161 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CustomerCardSummary;
+import com.credibanco.cardsystem.dto.CustomerViewResponse;
+import com.credibanco.cardsystem.exception.CustomerNotFoundException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerServiceTest extends IntegrationTest {
+
+    private static final String BIG_CUSTOMER = "CUST-BIG";
+    private static final String SMALL_CUSTOMER = "CUST-SMALL";
+    private static final String FEW_CUSTOMER = "CUST-FEW";
+    // La latencia de la vista se mide en CustomerViewBenchmark
+    private static final int BIG_CUSTOMER_CARDS = 48;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeAll
+    void loadCustomers() {
+        long lastCardId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cards", Long.class);
+        generator.generate(400, 20);
+        // Las tarjetas generadas tienen un documento cada una y se reasignan a dos clientes; sólo las de esta
+        // llamada, porque la base es compartida
+        List<Long> ids = jdbcTemplate.queryForList("select id from cards where id > ? order by id", Long.class,
+                lastCardId);
+        for (int i = 0; i < ids.size(); i++) {
+            if (i < BIG_CUSTOMER_CARDS) {
+                jdbcTemplate.update("update cards set document_number = ? where id = ?", BIG_CUSTOMER, ids.get(i));
+            } else if (i < BIG_CUSTOMER_CARDS + 3) {
+                jdbcTemplate.update("update cards set document_number = ? where id = ?", SMALL_CUSTOMER, ids.get(i));
+            }
+        }
+    }
+
+    @Test
+    void view_MatchesDatabaseTotalsAndRecentTransactions() {
+        CustomerViewResponse view = customerService.getCustomer(BIG_CUSTOMER);
+
+        assertEquals(BIG_CUSTOMER_CARDS, view.getTotalCards());
+        assertEquals(BIG_CUSTOMER_CARDS, view.getCards().size());
+        assertEquals(count("select count(*) from transactions t join cards c on c.id = t.card_id "
+                + "where c.document_number = ?", BIG_CUSTOMER), view.getTotalTransactions());
+
+        for (CustomerCardSummary card : view.getCards()) {
+            Long cardId = jdbcTemplate.queryForObject("select id from cards where identifier = ?", Long.class,
+                    card.getIdentifier());
+            assertEquals(count("select count(*) from transactions where card_id = ?", cardId), card.getTotalTransactions());
+            assertEquals(count("select count(*) from transactions where card_id = ? and status = 'CANCELLED'", cardId),
+                    card.getCancelledTransactions());
+            BigDecimal approved = jdbcTemplate.queryForObject("select coalesce(sum(total_amount), 0) from transactions "
+                    + "where card_id = ? and status = 'APPROVED'", BigDecimal.class, cardId);
+            assertEquals(0, approved.compareTo(card.getApprovedAmount()));
+
+            List<String> expected = jdbcTemplate.queryForList("select reference_number from transactions "
+                    + "where card_id = ? order by created_at desc, id desc fetch first 5 rows only", String.class, cardId);
+            assertEquals(expected, card.getRecentTransactions().stream()
+                    .map(CreateTransactionResponse::getReferenceNumber).toList());
+            card.getRecentTransactions().forEach(t -> assertEquals(card.getIdentifier(), t.getCardIdentifier()));
+        }
+    }
+
+    @Test
+    void statementCount_DoesNotGrowWithTheNumberOfCards() {
+        sqlStatementCounter.start();
+        CustomerViewResponse small = customerService.getCustomer(SMALL_CUSTOMER);
+        int smallStatements = sqlStatementCounter.stop();
+
+        sqlStatementCounter.start();
+        CustomerViewResponse big = customerService.getCustomer(BIG_CUSTOMER);
+        int bigStatements = sqlStatementCounter.stop();
+
+        assertEquals(3, small.getTotalCards());
+        assertEquals(BIG_CUSTOMER_CARDS, big.getTotalCards());
+        // Tarjetas, transacciones recientes y totales
+        assertEquals(3, smallStatements);
+        assertEquals(3, bigStatements);
+    }
+
+    @Test
+    void cardsWithFewerTransactionsThanTheLimit_ReturnAllOfThem() {
+        Card withoutTransactions = saveCard(FEW_CUSTOMER);
+        Card withTwo = saveCard(FEW_CUSTOMER);
+        for (int i = 0; i < 2; i++) {
+            transactionRepository.save(Transaction.builder()
+                    .cardId(withTwo.getId())
+                    .referenceNumber("FEW" + TestCards.next())
+                    .totalAmount(new BigDecimal("3.00"))
+                    .purchaseAddress("Few Store")
+                    .status(TransactionStatus.APPROVED)
+                    .build());
+        }
+
+        Map<String, Integer> recent = customerService.getCustomer(FEW_CUSTOMER).getCards().stream()
+                .collect(Collectors.toMap(CustomerCardSummary::getIdentifier, card -> card.getRecentTransactions().size()));
+
+        assertEquals(Map.of(withoutTransactions.getIdentifier(), 0, withTwo.getIdentifier(), 2), recent);
+    }
+
+    @Test
+    void unknownDocument_IsRejected() {
+        assertThrows(CustomerNotFoundException.class, () -> customerService.getCustomer("NO-SUCH-CUSTOMER"));
+    }
+
+    private Card saveCard(String documentNumber) {
+        String pan = TestCards.pan("4444", TestCards.next());
+        return cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, documentNumber))
+                .pan(pan)
+                .holderName("Few Holder")
+                .documentNumber(documentNumber)
+                .cardType(CardType.DEBIT)
+                .status(CardStatus.ENROLLED)
+                .validationNumber("123")
+                .build());
+    }
+
+    private long count(String sql, Object... args) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(sql, args);
+        return ((Number) row.values().iterator().next()).longValue();
+    }
+}
@@ -0,0 +1,188 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CancelTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.DashboardMetricsResponse;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardMetricsTest extends IntegrationTest {
+
+    @Autowired
+    private DashboardMetrics dashboardMetrics;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // La base es compartida y otras clases escriben sin pasar por los servicios: cada prueba parte de contadores
+    // reconciliados
+    @BeforeEach
+    void reconcileSharedDatabase() {
+        assertTrue(dashboardMetrics.tryReconcile());
+    }
+
+    @Test
+    void stateTransitions_KeepCountersInSyncWithDatabase() {
+        DashboardMetricsResponse before = dashboardMetrics.snapshot();
+
+        String identifier = createEnrolledCard();
+        CreateTransactionResponse first = createTransaction(identifier, "40.00");
+        createTransaction(identifier, "2.50");
+        transactionService.cancelTransaction(CancelTransactionRequest.builder()
+                .referenceNumber(first.getReferenceNumber())
+                .build());
+
+        DashboardMetricsResponse after = dashboardMetrics.snapshot();
+        assertEquals(before.getTotalCards() + 1, after.getTotalCards());
+        assertEquals(before.getCardsByStatus().get(CardStatus.ENROLLED) + 1, after.getCardsByStatus().get(CardStatus.ENROLLED));
+        assertEquals(before.getApprovedTransactions() + 1, after.getApprovedTransactions());
+        assertEquals(before.getCancelledTransactions() + 1, after.getCancelledTransactions());
+        assertEquals(before.getTransactionsToday() + 2, after.getTransactionsToday());
+        assertEquals(0, before.getApprovedAmount().add(new BigDecimal("2.50")).compareTo(after.getApprovedAmount()));
+
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void failedOrRolledBackWork_DoesNotChangeCounters() {
+        Card created = cardRepository.findByIdentifier(createCard().getIdentifier()).orElseThrow();
+        DashboardMetricsResponse before = dashboardMetrics.snapshot();
+
+        assertThrows(InvalidCardStatusException.class, () -> createTransaction(created.getIdentifier(), "10.00"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            dashboardMetrics.transactionsApproved(1, BigDecimal.TEN);
+            status.setRollbackOnly();
+        });
+
+        DashboardMetricsResponse after = dashboardMetrics.snapshot();
+        assertEquals(before.getTotalTransactions(), after.getTotalTransactions());
+        assertEquals(0, before.getApprovedAmount().compareTo(after.getApprovedAmount()));
+    }
+
+    @Test
+    void reconcile_CorrectsWritesThatBypassedTheServices() {
+        Card card = cardRepository.findByIdentifier(createEnrolledCard()).orElseThrow();
+        transactionRepository.saveAndFlush(Transaction.builder()
+                .cardId(card.getId())
+                .referenceNumber("DASH" + TestCards.next())
+                .totalAmount(new BigDecimal("99.99"))
+                .purchaseAddress("Direct Insert")
+                .status(TransactionStatus.APPROVED)
+                .build());
+        DashboardMetricsResponse stale = dashboardMetrics.snapshot();
+
+        assertTrue(dashboardMetrics.tryReconcile());
+
+        DashboardMetricsResponse reconciled = dashboardMetrics.snapshot();
+        assertEquals(stale.getApprovedTransactions() + 1, reconciled.getApprovedTransactions());
+        assertEquals(0, stale.getApprovedAmount().add(new BigDecimal("99.99")).compareTo(reconciled.getApprovedAmount()));
+        assertNotNull(reconciled.getReconciledAt());
+    }
+
+    @Test
+    void concurrentTransactions_AreAllCounted() throws Exception {
+        List<String> identifiers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            identifiers.add(createEnrolledCard());
+        }
+        DashboardMetricsResponse before = dashboardMetrics.snapshot();
+        int transactions = 400;
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < transactions; i++) {
+                String identifier = identifiers.get(i % identifiers.size());
+                futures.add(executor.submit(() -> createTransaction(identifier, "1.00")));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        DashboardMetricsResponse after = dashboardMetrics.snapshot();
+        assertEquals(before.getApprovedTransactions() + transactions, after.getApprovedTransactions());
+        assertEquals(0, before.getApprovedAmount().add(BigDecimal.valueOf(transactions)).compareTo(after.getApprovedAmount()));
+        assertMatchesDatabase();
+    }
+
+    private void assertMatchesDatabase() {
+        DashboardMetricsResponse inMemory = dashboardMetrics.snapshot();
+        assertTrue(dashboardMetrics.tryReconcile());
+        DashboardMetricsResponse fromDatabase = dashboardMetrics.snapshot();
+
+        assertEquals(fromDatabase.getCardsByStatus(), inMemory.getCardsByStatus());
+        assertEquals(fromDatabase.getTotalTransactions(), inMemory.getTotalTransactions());
+        assertEquals(fromDatabase.getApprovedTransactions(), inMemory.getApprovedTransactions());
+        assertEquals(fromDatabase.getCancelledTransactions(), inMemory.getCancelledTransactions());
+        assertEquals(fromDatabase.getTransactionsToday(), inMemory.getTransactionsToday());
+        assertEquals(0, fromDatabase.getApprovedAmount().compareTo(inMemory.getApprovedAmount()));
+    }
+
+    private CreateCardResponse createCard() {
+        long sequence = TestCards.next();
+        return cardService.createCard(CreateCardRequest.builder()
+                .pan(TestCards.pan("4555", sequence))
+                .holderName("Dashboard Holder")
+                .documentNumber("DASH" + sequence)
+                .cardType(CardType.CREDIT)
+                .build());
+    }
+
+    private String createEnrolledCard() {
+        CreateCardResponse card = createCard();
+        cardService.enrollCard(EnrollCardRequest.builder()
+                .identifier(card.getIdentifier())
+                .validationNumber(card.getValidationNumber())
+                .build());
+        return card.getIdentifier();
+    }
+
+    private CreateTransactionResponse createTransaction(String identifier, String amount) {
+        return transactionService.createTransaction(CreateTransactionRequest.builder()
+                .cardIdentifier(identifier)
+                .totalAmount(new BigDecimal(amount))
+                .purchaseAddress("Dashboard Store")
+                .build());
+    }
+}
@@ -0,0 +1,279 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.IdempotencyProperties;
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.exception.ConcurrentUpdateException;
+import com.credibanco.cardsystem.exception.IdempotencyKeyMismatchException;
+import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.IdempotencyStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.IdempotencyRecordRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest extends IntegrationTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retry_ReturnsOriginalResponseWithoutCreatingAnotherTransaction() {
+        String identifier = createCard(true).getIdentifier();
+        CreateTransactionRequest request = purchase(identifier, "30.00");
+        String key = UUID.randomUUID().toString();
+
+        IdempotencyService.Result<CreateTransactionResponse> first = createTransaction(key, request);
+        IdempotencyService.Result<CreateTransactionResponse> retry = createTransaction(key, request);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.response().getReferenceNumber(), retry.response().getReferenceNumber());
+        assertEquals(1, transactionsOf(identifier));
+    }
+
+    @Test
+    void concurrentDuplicates_CoalesceOntoOneExecution() throws Exception {
+        String identifier = createCard(true).getIdentifier();
+        CreateTransactionRequest request = purchase(identifier, "5.00");
+        String key = UUID.randomUUID().toString();
+        int duplicates = 8;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        List<String> references = new ArrayList<>();
+        try {
+            List<Future<IdempotencyService.Result<CreateTransactionResponse>>> futures = new ArrayList<>();
+            for (int i = 0; i < duplicates; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return createTransaction(key, request);
+                }));
+            }
+            start.countDown();
+            for (Future<IdempotencyService.Result<CreateTransactionResponse>> future : futures) {
+                references.add(future.get().response().getReferenceNumber());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, references.stream().distinct().count());
+        assertEquals(1, transactionsOf(identifier));
+    }
+
+    @Test
+    void sameKeyWithDifferentRequest_IsRejected() {
+        String identifier = createCard(true).getIdentifier();
+        String key = UUID.randomUUID().toString();
+        createTransaction(key, purchase(identifier, "10.00"));
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> createTransaction(key, purchase(identifier, "11.00")));
+        assertEquals(1, transactionsOf(identifier));
+    }
+
+    @Test
+    void storedResponse_SurvivesLossOfTheMemoryStore() {
+        CreateCardRequest request = cardRequest();
+        String key = UUID.randomUUID().toString();
+        CreateCardResponse original = createCard(key, request, () -> cardService.createCard(request)).response();
+
+        idempotencyService.clearMemory();
+        IdempotencyService.Result<CreateCardResponse> retry = createCard(key, request,
+                () -> fail("Card service must not run again"));
+
+        assertTrue(retry.replayed());
+        assertEquals(original, retry.response());
+        assertEquals(IdempotencyStatus.COMPLETED,
+                idempotencyRecordRepository.findByScopeAndIdempotencyKey("cards", key).orElseThrow().getStatus());
+    }
+
+    @Test
+    void storedCardResponse_KeepsTheValidationNumberOutOfTheTable() {
+        CreateCardRequest request = cardRequest();
+        String key = UUID.randomUUID().toString();
+        CreateCardResponse original = createCard(key, request, () -> cardService.createCard(request)).response();
+
+        String body = idempotencyRecordRepository.findByScopeAndIdempotencyKey("cards", key).orElseThrow().getResponseBody();
+        assertFalse(body.contains(original.getValidationNumber()));
+        assertFalse(body.contains(request.getPan()));
+
+        idempotencyService.clearMemory();
+        assertEquals(original.getValidationNumber(),
+                createCard(key, request, () -> fail("Card service must not run again")).response().getValidationNumber());
+    }
+
+    @Test
+    void requestHash_IsKeyedSoThePanCannotBeRecoveredFromIt() throws Exception {
+        CreateCardRequest request = cardRequest();
+        String key = UUID.randomUUID().toString();
+        createCard(key, request, () -> cardService.createCard(request));
+
+        String unkeyed = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request)));
+        String stored = idempotencyRecordRepository.findByScopeAndIdempotencyKey("cards", key).orElseThrow().getRequestHash();
+        assertNotEquals(unkeyed, stored);
+    }
+
+    @Test
+    void keyReservedByAnotherNode_DuplicateWaitsAndReplaysItsResponse() throws Exception {
+        String identifier = createCard(true).getIdentifier();
+        CreateTransactionRequest request = purchase(identifier, "12.00");
+        String key = UUID.randomUUID().toString();
+        CreateTransactionResponse original = createTransaction(key, request).response();
+        String body = reserveAsAnotherNode(key);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyService.Result<CreateTransactionResponse>> duplicate = executor.submit(() ->
+                    idempotencyService.execute("transactions", key, request, CreateTransactionResponse.class,
+                            () -> fail("Transaction service must not run while the key is reserved")));
+            Thread.sleep(300);
+            assertFalse(duplicate.isDone());
+
+            jdbcTemplate.update("update idempotency_keys set status = 'COMPLETED', response_body = ? "
+                    + "where scope = 'transactions' and idempotency_key = ?", body, key);
+
+            IdempotencyService.Result<CreateTransactionResponse> replayed = duplicate.get(10, TimeUnit.SECONDS);
+            assertTrue(replayed.replayed());
+            assertEquals(original.getReferenceNumber(), replayed.response().getReferenceNumber());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, transactionsOf(identifier));
+    }
+
+    @Test
+    void keyReservedByAnotherNode_DuplicateGivesUpAfterTheTimeout() {
+        String identifier = createCard(true).getIdentifier();
+        CreateTransactionRequest request = purchase(identifier, "13.00");
+        String key = UUID.randomUUID().toString();
+        createTransaction(key, request);
+        reserveAsAnotherNode(key);
+
+        Duration timeout = idempotencyProperties.getInFlightTimeout();
+        idempotencyProperties.setInFlightTimeout(Duration.ofMillis(300));
+        try {
+            assertThrows(ConcurrentUpdateException.class, () -> createTransaction(key, request));
+        } finally {
+            idempotencyProperties.setInFlightTimeout(timeout);
+        }
+        assertEquals(1, transactionsOf(identifier));
+    }
+
+    @Test
+    void failedRequest_IsNotStoredAndCanBeRetried() {
+        CreateCardResponse card = createCard(false);
+        CreateTransactionRequest request = purchase(card.getIdentifier(), "8.00");
+        String key = UUID.randomUUID().toString();
+
+        assertThrows(InvalidCardStatusException.class, () -> createTransaction(key, request));
+        cardService.enrollCard(EnrollCardRequest.builder()
+                .identifier(card.getIdentifier())
+                .validationNumber(card.getValidationNumber())
+                .build());
+
+        assertFalse(createTransaction(key, request).replayed());
+        assertEquals(1, transactionsOf(card.getIdentifier()));
+    }
+
+    // Deja la fila de la clave como si otra instancia la hubiera reservado y no terminado; devuelve su respuesta
+    private String reserveAsAnotherNode(String key) {
+        String body = idempotencyRecordRepository.findByScopeAndIdempotencyKey("transactions", key)
+                .orElseThrow().getResponseBody();
+        jdbcTemplate.update("update idempotency_keys set status = 'PENDING', response_body = null "
+                + "where scope = 'transactions' and idempotency_key = ?", key);
+        idempotencyService.clearMemory();
+        return body;
+    }
+
+    private IdempotencyService.Result<CreateCardResponse> createCard(String key, CreateCardRequest request,
+                                                                     Supplier<CreateCardResponse> work) {
+        return idempotencyService.execute("cards", key, request, CreateCardResponse.class, work,
+                CardService::withoutValidationNumber, cardService::withValidationNumber);
+    }
+
+    private IdempotencyService.Result<CreateTransactionResponse> createTransaction(String key, CreateTransactionRequest request) {
+        return idempotencyService.execute("transactions", key, request, CreateTransactionResponse.class,
+                () -> transactionService.createTransaction(request));
+    }
+
+    private long transactionsOf(String identifier) {
+        Long cardId = cardRepository.findByIdentifier(identifier).orElseThrow().getId();
+        return jdbcTemplate.queryForObject("select count(*) from transactions where card_id = ?", Long.class, cardId);
+    }
+
+    private CreateTransactionRequest purchase(String identifier, String amount) {
+        return CreateTransactionRequest.builder()
+                .cardIdentifier(identifier)
+                .totalAmount(new BigDecimal(amount))
+                .purchaseAddress("Idempotent Store")
+                .build();
+    }
+
+    private CreateCardRequest cardRequest() {
+        long sequence = TestCards.next();
+        return CreateCardRequest.builder()
+                .pan(TestCards.pan("4888", sequence))
+                .holderName("Idempotent Holder")
+                .documentNumber("IDEM" + sequence)
+                .cardType(CardType.CREDIT)
+                .build();
+    }
+
+    private CreateCardResponse createCard(boolean enrolled) {
+        CreateCardResponse card = cardService.createCard(cardRequest());
+        if (enrolled) {
+            cardService.enrollCard(EnrollCardRequest.builder()
+                    .identifier(card.getIdentifier())
+                    .validationNumber(card.getValidationNumber())
+                    .build());
+        }
+        return card;
+    }
+}
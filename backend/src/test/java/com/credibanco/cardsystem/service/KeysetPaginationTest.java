@@ -0,0 +1,82 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.CursorPage;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTest extends IntegrationTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void getTransactionsAfter_WalksAllRowsInOffsetOrder() {
+        long sequence = TestCards.next();
+        String pan = TestCards.pan("5555", sequence);
+        Card card = cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "KS" + sequence))
+                .pan(pan)
+                .holderName("Keyset Holder")
+                .documentNumber("KS" + sequence)
+                .cardType(CardType.CREDIT)
+                .status(CardStatus.ENROLLED)
+                .validationNumber("007")
+                .build());
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 37; i++) {
+            transactions.add(Transaction.builder()
+                    .cardId(card.getId())
+                    .referenceNumber("KS" + UUID.randomUUID())
+                    .totalAmount(BigDecimal.ONE)
+                    .purchaseAddress("Keyset Store")
+                    .status(TransactionStatus.APPROVED)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+
+        long total = transactionRepository.count();
+        List<String> expected = transactionService.getAllTransactions(PageRequest.of(0, (int) total,
+                        Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))))
+                .map(CreateTransactionResponse::getReferenceNumber)
+                .getContent();
+
+        List<String> walked = new ArrayList<>();
+        String cursor = "";
+        CursorPage<CreateTransactionResponse> page;
+        do {
+            page = transactionService.getTransactionsAfter(cursor, 8);
+            page.getContent().forEach(transaction -> walked.add(transaction.getReferenceNumber()));
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertNull(page.getNextCursor());
+        assertEquals(expected, walked);
+    }
+}
@@ -0,0 +1,92 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.PanHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PanIndexTest extends IntegrationTest {
+
+    @Autowired
+    private PanIndex panIndex;
+
+    @Autowired
+    private PanHasher panHasher;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void directlyPersistedCard_GetsItsPanHashFromTheEntityListener() {
+        String pan = nextPan();
+        Card card = cardRepository.saveAndFlush(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "PIDX"))
+                .pan(pan)
+                .holderName("Index Holder")
+                .documentNumber("PIDX")
+                .cardType(CardType.DEBIT)
+                .status(CardStatus.CREATED)
+                .validationNumber("123")
+                .build());
+
+        assertEquals(panHasher.hash(pan), card.getPanHash());
+        String stored = jdbcTemplate.queryForObject("select pan_hash from cards where id = ?", String.class, card.getId());
+        assertEquals(panHasher.hash(pan), stored);
+    }
+
+    @Test
+    void duplicatePan_IsRejectedThroughTheFilter() {
+        CreateCardRequest request = request(nextPan());
+        cardService.createCard(request);
+
+        assertTrue(panIndex.mightExist(panIndex.hash(request.getPan())));
+        CreateCardRequest sameCardOtherHolder = request(request.getPan());
+        sameCardOtherHolder.setDocumentNumber("OTHER" + TestCards.next());
+        assertThrows(InvalidCardStatusException.class, () -> cardService.createCard(sameCardOtherHolder));
+    }
+
+    @Test
+    void rebuild_BackfillsRowsWithoutHashAndIndexesThem() {
+        CreateCardResponse created = cardService.createCard(request(nextPan()));
+        Card card = cardRepository.findByIdentifier(created.getIdentifier()).orElseThrow();
+        jdbcTemplate.update("update cards set pan_hash = null where id = ?", card.getId());
+
+        panIndex.rebuild();
+
+        String stored = jdbcTemplate.queryForObject("select pan_hash from cards where id = ?", String.class, card.getId());
+        assertEquals(panHasher.hash(card.getPan()), stored);
+        assertTrue(panIndex.mightExist(stored));
+    }
+
+    private String nextPan() {
+        return TestCards.pan("4999", TestCards.next());
+    }
+
+    private CreateCardRequest request(String pan) {
+        return CreateCardRequest.builder()
+                .pan(pan)
+                .holderName("Index Holder")
+                .documentNumber("PIDX" + TestCards.next())
+                .cardType(CardType.CREDIT)
+                .build();
+    }
+}
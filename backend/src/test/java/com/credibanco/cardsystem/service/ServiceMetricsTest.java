@@ -0,0 +1,108 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.SqlMetricsConfig;
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.EnrollCardRequest;
+import com.credibanco.cardsystem.exception.CardNotFoundException;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsTest extends IntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private SqlMetricsConfig.SqlStatementMetricsFilter sqlStatementMetricsFilter;
+
+    @Test
+    void serviceTimer_TagsOutcomeWithExceptionType() {
+        CreateCardResponse card = createCard();
+        cardService.getCardDetails(card.getIdentifier());
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardDetails("missing-identifier"));
+
+        Timer success = meterRegistry.find("card.service")
+                .tags("method", "getCardDetails", "exception", "none").timer();
+        Timer failure = meterRegistry.find("card.service")
+                .tags("method", "getCardDetails", "exception", "CardNotFoundException").timer();
+        assertNotNull(success);
+        assertNotNull(failure);
+        assertTrue(success.count() >= 1);
+        assertTrue(failure.count() >= 1);
+    }
+
+    @Test
+    void sqlStatementFilter_RecordsStatementsPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cards/metrics-probe");
+
+        sqlStatementMetricsFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/cards/metrics-probe");
+            cardRepository.count();
+            cardRepository.findByIdentifier("metrics-probe");
+        });
+
+        DistributionSummary statements = meterRegistry.find("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", "/cards/metrics-probe").summary();
+        assertNotNull(statements);
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+    }
+
+    @Test
+    void approvedTransaction_IncrementsVolumeAndAmountCounters() {
+        CreateCardResponse card = createCard();
+        cardService.enrollCard(EnrollCardRequest.builder()
+                .identifier(card.getIdentifier())
+                .validationNumber(card.getValidationNumber())
+                .build());
+        Counter volume = meterRegistry.get("transactions.volume").tag("status", "approved").counter();
+        Counter amount = meterRegistry.get("transactions.amount").tag("status", "approved").counter();
+        double volumeBefore = volume.count();
+        double amountBefore = amount.count();
+
+        transactionService.createTransaction(CreateTransactionRequest.builder()
+                .cardIdentifier(card.getIdentifier())
+                .totalAmount(new BigDecimal("12.50"))
+                .purchaseAddress("Metrics Store")
+                .build());
+
+        assertEquals(volumeBefore + 1, volume.count());
+        assertEquals(amountBefore + 12.50, amount.count(), 0.001);
+    }
+
+    private CreateCardResponse createCard() {
+        long sequence = TestCards.next();
+        return cardService.createCard(CreateCardRequest.builder()
+                .pan(TestCards.pan("4666", sequence))
+                .holderName("Metrics Holder")
+                .documentNumber("MET" + sequence)
+                .cardType(CardType.DEBIT)
+                .build());
+    }
+}
@@ -0,0 +1,97 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CreateCardRequest;
+import com.credibanco.cardsystem.dto.CreateCardResponse;
+import com.credibanco.cardsystem.exception.InvalidCardStatusException;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest extends IntegrationTest {
+
+    private static final int CARDS = 1000;
+    private static final int TRANSACTIONS_PER_CARD = 5;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private PanIndex panIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generate_WritesSkewedDataSpreadOverMonths() {
+        long cardsBefore = count("cards");
+        long transactionsBefore = count("transactions");
+        long lastCardId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cards", Long.class);
+        LocalDateTime started = LocalDateTime.now();
+
+        SyntheticDataGenerator.Result result = generator.generate(CARDS, TRANSACTIONS_PER_CARD);
+
+        assertEquals(CARDS, result.cards());
+        assertEquals(CARDS * TRANSACTIONS_PER_CARD, result.transactions());
+        assertEquals(cardsBefore + CARDS, count("cards"));
+        assertEquals(transactionsBefore + CARDS * TRANSACTIONS_PER_CARD, count("transactions"));
+
+        // Otras clases también generan datos sintéticos en la base compartida: sólo cuentan las tarjetas de esta llamada
+        String synthetic = "c.pan like '" + SyntheticDataGenerator.PAN_PREFIX + "%' and c.id > " + lastCardId;
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from transactions t join cards c on c.id = t.card_id "
+                + "where " + synthetic + " and c.status = 'CREATED'", Long.class));
+
+        // El 1 % de las tarjetas recibe cerca de la mitad de las compras
+        List<Long> perCard = jdbcTemplate.queryForList("select count(*) from transactions t join cards c on c.id = t.card_id "
+                + "where " + synthetic + " group by t.card_id order by count(*) desc", Long.class);
+        long hottest = perCard.stream().limit(CARDS / 100).mapToLong(Long::longValue).sum();
+        assertTrue(hottest > CARDS * TRANSACTIONS_PER_CARD * 0.4, "Compras en tarjetas calientes: " + hottest);
+
+        Map<String, Object> range = jdbcTemplate.queryForMap("select min(t.created_at) oldest, max(t.created_at) newest "
+                + "from transactions t join cards c on c.id = t.card_id where " + synthetic);
+        LocalDateTime oldest = ((Timestamp) range.get("OLDEST")).toLocalDateTime();
+        LocalDateTime newest = ((Timestamp) range.get("NEWEST")).toLocalDateTime();
+        assertTrue(oldest.isAfter(started.minusMonths(12).minusHours(2)));
+        assertTrue(oldest.isBefore(started.minusMonths(9)));
+        assertTrue(newest.isBefore(started.minusMinutes(59)));
+    }
+
+    @Test
+    void generatedRows_DoNotCollideWithApplicationWrites() {
+        generator.generate(200, 1);
+        String syntheticPan = jdbcTemplate.queryForObject("select max(pan) from cards where pan like '"
+                + SyntheticDataGenerator.PAN_PREFIX + "%'", String.class);
+
+        assertTrue(panIndex.mightExist(panIndex.hash(syntheticPan)));
+        assertThrows(InvalidCardStatusException.class, () -> cardService.createCard(request(syntheticPan)));
+
+        // Los ids siguientes de Hibernate quedan fuera del rango reservado
+        CreateCardResponse created = cardService.createCard(request(TestCards.pan("4777", TestCards.next())));
+        assertNotNull(created.getIdentifier());
+    }
+
+    private CreateCardRequest request(String pan) {
+        return CreateCardRequest.builder()
+                .pan(pan)
+                .holderName("Synthetic Holder")
+                .documentNumber("SYN" + pan.substring(8))
+                .cardType(CardType.DEBIT)
+                .build();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
@@ -0,0 +1,122 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionBatchServiceTest extends IntegrationTest {
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void process_MixedLines_RespondsInInputOrder() throws Exception {
+        Card enrolled = saveCard(CardStatus.ENROLLED);
+        Card inactive = saveCard(CardStatus.INACTIVE);
+
+        String body = line(enrolled.getIdentifier(), "10.00") + "\n"
+                + "{not json\n"
+                + line("unknown-card", "5.00") + "\n"
+                + "\n"
+                + line(inactive.getIdentifier(), "7.50") + "\n"
+                + line(enrolled.getIdentifier(), "0") + "\n"
+                + line(enrolled.getIdentifier(), "20.00");
+
+        List<JsonNode> lines = process(body);
+
+        assertEquals(6, lines.size());
+        assertEquals(enrolled.getIdentifier(), lines.get(0).get("cardIdentifier").asText());
+        assertEquals("APPROVED", lines.get(0).get("status").asText());
+        assertTrue(lines.get(0).hasNonNull("referenceNumber"));
+        assertTrue(lines.get(0).hasNonNull("createdAt"));
+        assertError(lines.get(1), 2, "Malformed JSON");
+        assertError(lines.get(2), 3, "Card not found");
+        assertError(lines.get(3), 5, "Card must be enrolled to create transactions");
+        assertError(lines.get(4), 6, "Total amount must be greater than 0");
+        assertEquals(0, lines.get(5).get("totalAmount").decimalValue().compareTo(new BigDecimal("20.00")));
+
+        String reference = lines.get(5).get("referenceNumber").asText();
+        assertTrue(transactionRepository.findByReferenceNumber(reference).isPresent());
+    }
+
+    @Test
+    void process_ManyLines_SpansSeveralChunks() throws Exception {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            cards.add(saveCard(CardStatus.ENROLLED));
+        }
+        int lines = 1_250;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            body.append(line(cards.get(i % cards.size()).getIdentifier(), "1.00")).append('\n');
+        }
+        long before = transactionRepository.count();
+
+        List<JsonNode> responses = process(body.toString());
+
+        assertEquals(lines, responses.size());
+        assertTrue(responses.stream().allMatch(response -> "APPROVED".equals(response.path("status").asText())));
+        assertEquals(lines, responses.stream().map(response -> response.get("referenceNumber").asText()).distinct().count());
+        assertEquals(before + lines, transactionRepository.count());
+    }
+
+    private List<JsonNode> process(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionBatchService.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static void assertError(JsonNode line, long lineNumber, String error) {
+        assertEquals(lineNumber, line.get("line").asLong());
+        assertEquals(error, line.get("error").asText());
+    }
+
+    private static String line(String cardIdentifier, String amount) {
+        return "{\"cardIdentifier\":\"" + cardIdentifier + "\",\"totalAmount\":" + amount
+                + ",\"purchaseAddress\":\"Batch Store\"}";
+    }
+
+    private Card saveCard(CardStatus status) {
+        String pan = TestCards.pan("4222", TestCards.next());
+        return cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "NDJ"))
+                .pan(pan)
+                .holderName("Batch Holder")
+                .documentNumber("NDJ")
+                .cardType(CardType.CREDIT)
+                .status(status)
+                .validationNumber("123")
+                .build());
+    }
+}
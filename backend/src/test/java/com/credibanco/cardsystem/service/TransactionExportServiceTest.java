@@ -0,0 +1,119 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.ExportFormat;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionExportServiceTest extends IntegrationTest {
+
+    private static final int ROWS = 2_500;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Card card;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void setUp() {
+        String pan = TestCards.pan("4333", TestCards.next());
+        card = cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "EXP"))
+                .pan(pan)
+                .holderName("Export Holder")
+                .documentNumber("EXP")
+                .cardType(CardType.DEBIT)
+                .status(CardStatus.ENROLLED)
+                .validationNumber("123")
+                .build());
+
+        from = LocalDateTime.now().minusSeconds(1);
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .cardId(card.getId())
+                    .referenceNumber("EXP" + TestCards.next())
+                    .totalAmount(new BigDecimal("10.25"))
+                    .purchaseAddress(i == 0 ? "Calle 1, \"Local\" 2" : "Export Store")
+                    .status(i % 5 == 0 ? TransactionStatus.CANCELLED : TransactionStatus.APPROVED)
+                    .build());
+        }
+        transactionRepository.saveAllAndFlush(transactions);
+        to = LocalDateTime.now().plusSeconds(1);
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndOneLinePerTransaction() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = transactionExportService.export(from, to, null, ExportFormat.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines()
+                .filter(line -> line.equals(TransactionExportService.CSV_HEADER.strip()) || line.contains(card.getIdentifier()))
+                .toList();
+        assertTrue(rows >= ROWS);
+        assertEquals(TransactionExportService.CSV_HEADER.strip(), lines.get(0));
+        assertEquals(ROWS + 1, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.contains(",\"Calle 1, \"\"Local\"\" 2\",")));
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(",10.25,")));
+    }
+
+    @Test
+    void export_NdjsonWithStatus_FiltersRows() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        transactionExportService.export(from, to, TransactionStatus.CANCELLED, ExportFormat.NDJSON, output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            if (card.getIdentifier().equals(node.get("cardIdentifier").asText())) {
+                lines.add(node);
+            }
+        }
+        assertEquals(ROWS / 5, lines.size());
+        assertTrue(lines.stream().allMatch(node -> "CANCELLED".equals(node.get("status").asText())));
+    }
+
+    @Test
+    void export_RangeWithoutTransactions_WritesOnlyHeader() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = transactionExportService.export(to.plusDays(1), to.plusDays(2), null, ExportFormat.CSV, output);
+
+        assertEquals(0, rows);
+        assertEquals(TransactionExportService.CSV_HEADER, output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,177 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.CancellationIndexProperties;
+import com.credibanco.cardsystem.dto.CancelTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.exception.TransactionCancellationException;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.Transaction;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import com.credibanco.cardsystem.util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionServiceQueryCountTest extends IntegrationTest {
+
+    private static final Pattern CARDS_TABLE = Pattern.compile("\\bcards\\b");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CancellableTransactionIndex cancellableIndex;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private CancellationIndexProperties cancellationIndexProperties;
+
+    private List<Card> cards;
+
+    @BeforeEach
+    void setUp() {
+        cards = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            long sequence = TestCards.next();
+            String pan = TestCards.pan("9876", sequence);
+            cards.add(Card.builder()
+                    .identifier(CardUtils.generateIdentifier(pan, "QC" + sequence))
+                    .pan(pan)
+                    .holderName("Query Count " + i)
+                    .documentNumber("QC" + sequence)
+                    .cardType(CardType.DEBIT)
+                    .status(CardStatus.ENROLLED)
+                    .validationNumber("042")
+                    .build());
+        }
+        cardRepository.saveAll(cards);
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            transactions.add(Transaction.builder()
+                    .cardId(cards.get(i % cards.size()).getId())
+                    .referenceNumber("QC" + UUID.randomUUID())
+                    .totalAmount(BigDecimal.valueOf(10 + i))
+                    .purchaseAddress("Query Count Store")
+                    .status(TransactionStatus.APPROVED)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    @Test
+    void getAllTransactions_StatementCountDoesNotGrowWithPageSize() {
+        for (int size : new int[]{5, 50, 100}) {
+            sqlStatementCounter.start();
+
+            Page<CreateTransactionResponse> page = transactionService.getAllTransactions(
+                    PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+            assertEquals(size, page.getNumberOfElements());
+            page.getContent().forEach(transaction -> assertNotNull(transaction.getCardIdentifier()));
+            // Una consulta para la página y otra para el conteo total
+            assertEquals(2, sqlStatementCounter.stop(),
+                    "Unexpected statement count for page size " + size);
+        }
+    }
+
+    @Test
+    void createTransaction_CachedCard_TouchesTheCardRowOnce() {
+        String identifier = cards.get(1).getIdentifier();
+        transactionService.createTransaction(purchase(identifier));
+
+        List<String> statements = sqlStatementCounter.capture(() -> transactionService.createTransaction(purchase(identifier)));
+
+        // Sin el caché eran dos: la lectura de la tarjeta y la comprobación de su versión al confirmar
+        List<String> cardStatements = onCards(statements);
+        assertEquals(1, cardStatements.size(), statements.toString());
+        assertTrue(cardStatements.get(0).startsWith("update"), cardStatements.get(0));
+    }
+
+    @Test
+    void getCardDetails_CachedCard_RunsNoQueries() {
+        String identifier = cards.get(2).getIdentifier();
+        cardService.getCardDetails(identifier);
+
+        List<String> statements = sqlStatementCounter.capture(() -> cardService.getCardDetails(identifier));
+
+        assertEquals(List.of(), statements);
+    }
+
+    @Test
+    void cancelTransaction_IndexedReference_UpdatesWithoutReading() {
+        CreateTransactionResponse created = transactionService.createTransaction(CreateTransactionRequest.builder()
+                .cardIdentifier(cards.get(0).getIdentifier())
+                .totalAmount(new BigDecimal("12.00"))
+                .purchaseAddress("Query Count Store")
+                .build());
+        sqlStatementCounter.start();
+
+        transactionService.cancelTransaction(new CancelTransactionRequest(created.getReferenceNumber()));
+
+        // Sólo el UPDATE condicionado al estado APPROVED
+        assertEquals(1, sqlStatementCounter.stop());
+        assertEquals(TransactionStatus.CANCELLED,
+                transactionRepository.findByReferenceNumber(created.getReferenceNumber()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void cancelTransaction_UnknownReferenceOnceIndexCoversWindow_RejectsWithoutQueries() {
+        // Lo que hace el perfil single-node, sólo durante esta prueba: el contexto es compartido
+        cancellationIndexProperties.setAuthoritative(true);
+        cancellableIndex.coverFrom(System.currentTimeMillis() - CancellableTransactionIndex.RETENTION.toMillis());
+        try {
+            sqlStatementCounter.start();
+
+            assertThrows(TransactionCancellationException.class, () -> transactionService.cancelTransaction(
+                    new CancelTransactionRequest("TXN" + UUID.randomUUID())));
+
+            assertEquals(0, sqlStatementCounter.stop());
+        } finally {
+            cancellableIndex.startCoverage();
+            cancellationIndexProperties.setAuthoritative(false);
+        }
+    }
+
+    private CreateTransactionRequest purchase(String identifier) {
+        return CreateTransactionRequest.builder()
+                .cardIdentifier(identifier)
+                .totalAmount(new BigDecimal("7.00"))
+                .purchaseAddress("Query Count Store")
+                .build();
+    }
+
+    private static List<String> onCards(List<String> statements) {
+        return statements.stream().filter(sql -> CARDS_TABLE.matcher(sql).find()).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.dto.CancelTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionRequest;
+import com.credibanco.cardsystem.dto.CreateTransactionResponse;
+import com.credibanco.cardsystem.dto.DashboardMetricsResponse;
+import com.credibanco.cardsystem.model.Card;
+import com.credibanco.cardsystem.model.CardStatus;
+import com.credibanco.cardsystem.model.CardType;
+import com.credibanco.cardsystem.model.TransactionStatus;
+import com.credibanco.cardsystem.repository.CardRepository;
+import com.credibanco.cardsystem.repository.TransactionRepository;
+import com.credibanco.cardsystem.support.IntegrationTest;
+import com.credibanco.cardsystem.support.TestCards;
+import com.credibanco.cardsystem.util.CardUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+        "app.velocity-limits.enabled=true",
+        "app.velocity-limits.profiles.CREDIT.max-transactions-per-minute=3",
+        "app.velocity-limits.profiles.DEBIT.max-amount-per-hour=100"
+})
+class VelocityLimitTest extends IntegrationTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private DashboardMetrics dashboardMetrics;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createTransaction_OverPerMinuteLimit_IsPersistedAsRejected() {
+        Card card = saveCard(CardType.CREDIT);
+        DashboardMetricsResponse before = dashboardMetrics.snapshot();
+
+        CreateTransactionResponse first = create(card, "10.00");
+        create(card, "10.00");
+        create(card, "10.00");
+        CreateTransactionResponse rejected = create(card, "10.00");
+
+        assertEquals(TransactionStatus.APPROVED, first.getStatus());
+        assertEquals(TransactionStatus.REJECTED, rejected.getStatus());
+        assertEquals(TransactionStatus.REJECTED,
+                transactionRepository.findByReferenceNumber(rejected.getReferenceNumber()).orElseThrow().getStatus());
+
+        DashboardMetricsResponse after = dashboardMetrics.snapshot();
+        assertEquals(before.getTotalTransactions() + 4, after.getTotalTransactions());
+        assertEquals(before.getApprovedTransactions() + 3, after.getApprovedTransactions());
+
+        // Cancelar una compra aprobada devuelve su cupo
+        transactionService.cancelTransaction(CancelTransactionRequest.builder()
+                .referenceNumber(first.getReferenceNumber())
+                .build());
+        assertEquals(TransactionStatus.APPROVED, create(card, "10.00").getStatus());
+    }
+
+    @Test
+    void createTransaction_OverHourlyAmount_UsesDebitProfile() {
+        Card card = saveCard(CardType.DEBIT);
+
+        assertEquals(TransactionStatus.APPROVED, create(card, "80.00").getStatus());
+        assertEquals(TransactionStatus.REJECTED, create(card, "20.01").getStatus());
+        assertEquals(TransactionStatus.APPROVED, create(card, "20.00").getStatus());
+    }
+
+    @Test
+    void batch_OverLimit_RespondsRejectedLines() throws Exception {
+        Card card = saveCard(CardType.CREDIT);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"cardIdentifier\":\"").append(card.getIdentifier())
+                    .append("\",\"totalAmount\":1.00,\"purchaseAddress\":\"Batch Store\"}\n");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        TransactionBatchService.BatchSummary summary = transactionBatchService.process(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), output);
+
+        String response = output.toString(StandardCharsets.UTF_8);
+        assertEquals(3, summary.getApproved());
+        assertEquals(2, summary.getRejected());
+        assertEquals(0, summary.getFailed());
+        assertEquals(3, response.split("\"status\":\"APPROVED\"", -1).length - 1);
+        assertEquals(2, response.split("\"status\":\"REJECTED\"", -1).length - 1);
+        assertEquals(3, countAudits("CREATE", card));
+        assertEquals(2, countAudits("REJECT", card));
+    }
+
+    private long countAudits(String action, Card card) {
+        return jdbcTemplate.queryForObject("select count(*) from audit_logs where entity = 'Transaction' "
+                + "and action = ? and description like ?", Long.class, action, "%" + card.getIdentifier() + "%");
+    }
+
+    private CreateTransactionResponse create(Card card, String amount) {
+        return transactionService.createTransaction(CreateTransactionRequest.builder()
+                .cardIdentifier(card.getIdentifier())
+                .totalAmount(new BigDecimal(amount))
+                .purchaseAddress("Velocity Store")
+                .build());
+    }
+
+    private Card saveCard(CardType cardType) {
+        String pan = TestCards.pan("4666", TestCards.next());
+        return cardRepository.save(Card.builder()
+                .identifier(CardUtils.generateIdentifier(pan, "VEL"))
+                .pan(pan)
+                .holderName("Velocity Holder")
+                .documentNumber("VEL")
+                .cardType(cardType)
+                .status(CardStatus.ENROLLED)
+                .validationNumber("123")
+                .build());
+    }
+}
@@ -0,0 +1,145 @@
+package com.credibanco.cardsystem.service;
+
+import com.credibanco.cardsystem.config.VelocityLimitProperties;
+import com.credibanco.cardsystem.model.CardType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class VelocityLimiterTest {
+
+    // Alineado a un día exacto para que las cubetas de minuto, hora y día empiecen juntas
+    private static final long T0 = 20_000 * VelocityLimiter.DAY;
+
+    private VelocityLimitProperties properties;
+    private VelocityLimiter velocityLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new VelocityLimitProperties();
+        properties.getProfiles().put(CardType.CREDIT,
+                new VelocityLimitProperties.Profile(5, new BigDecimal("1000.00"), new BigDecimal("3000.00")));
+        properties.getProfiles().put(CardType.DEBIT,
+                new VelocityLimitProperties.Profile(100, new BigDecimal("100.00"), new BigDecimal("150.00")));
+        velocityLimiter = new VelocityLimiter(properties);
+    }
+
+    @Test
+    void tryAcquire_TransactionsPerMinute_RejectsOverLimitAndSlidesOut() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(acquire(1L, CardType.CREDIT, "1.00", T0 + i).isEmpty());
+        }
+        assertEquals(Optional.of(VelocityLimiter.Violation.TRANSACTIONS_PER_MINUTE),
+                acquire(1L, CardType.CREDIT, "1.00", T0 + 10));
+
+        // A mitad del minuto siguiente la cubeta anterior aún pesa la mitad: 5 * 0.5 redondeado hacia arriba
+        long halfway = T0 + VelocityLimiter.MINUTE + VelocityLimiter.MINUTE / 2;
+        assertTrue(acquire(1L, CardType.CREDIT, "1.00", halfway).isEmpty());
+        assertTrue(acquire(1L, CardType.CREDIT, "1.00", halfway).isEmpty());
+        assertEquals(Optional.of(VelocityLimiter.Violation.TRANSACTIONS_PER_MINUTE),
+                acquire(1L, CardType.CREDIT, "1.00", halfway));
+
+        assertTrue(acquire(1L, CardType.CREDIT, "1.00", T0 + 3 * VelocityLimiter.MINUTE).isEmpty());
+        assertTrue(acquire(2L, CardType.CREDIT, "1.00", T0 + 10).isEmpty());
+    }
+
+    @Test
+    void tryAcquire_AmountLimits_UseTheCardTypeProfile() {
+        assertTrue(acquire(1L, CardType.DEBIT, "60.00", T0).isEmpty());
+        assertEquals(Optional.of(VelocityLimiter.Violation.AMOUNT_PER_HOUR), acquire(1L, CardType.DEBIT, "40.01", T0 + 1));
+        assertTrue(acquire(1L, CardType.DEBIT, "40.00", T0 + 2).isEmpty());
+
+        long nextHours = T0 + 2 * VelocityLimiter.HOUR;
+        assertEquals(Optional.of(VelocityLimiter.Violation.AMOUNT_PER_DAY), acquire(1L, CardType.DEBIT, "50.01", nextHours));
+        assertTrue(acquire(1L, CardType.DEBIT, "50.00", nextHours).isEmpty());
+
+        assertTrue(acquire(2L, CardType.CREDIT, "1000.00", T0).isEmpty());
+    }
+
+    @Test
+    void release_ReturnsCapacityOfCancelledTransaction() {
+        assertTrue(acquire(1L, CardType.DEBIT, "100.00", T0).isEmpty());
+        assertTrue(acquire(1L, CardType.DEBIT, "1.00", T0 + 1).isPresent());
+
+        velocityLimiter.release(1L, new BigDecimal("100.00"), LocalDateTime.ofInstant(Instant.ofEpochMilli(T0), ZoneId.systemDefault()));
+
+        assertTrue(acquire(1L, CardType.DEBIT, "1.00", T0 + 2).isEmpty());
+    }
+
+    @Test
+    void tryAcquire_Disabled_AllowsEverything() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(acquire(1L, CardType.CREDIT, "999999.00", T0).isEmpty());
+        }
+    }
+
+    @Test
+    void tryAcquire_ConcurrentPurchasesOnSameCard_NeverExceedLimit() throws Exception {
+        properties.getProfiles().put(CardType.CREDIT,
+                new VelocityLimitProperties.Profile(40, new BigDecimal("1000000.00"), new BigDecimal("1000000.00")));
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int approved = 0;
+                    for (int i = 0; i < 10; i++) {
+                        if (acquire(7L, CardType.CREDIT, "1.00", T0 + 1).isEmpty()) {
+                            approved++;
+                        }
+                    }
+                    return approved;
+                }));
+            }
+            start.countDown();
+            int approved = 0;
+            for (Future<Integer> future : futures) {
+                approved += future.get();
+            }
+            assertEquals(40, approved);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void tryAcquire_StaysWellUnderOneMillisecond() {
+        properties.getProfiles().put(CardType.CREDIT,
+                new VelocityLimitProperties.Profile(Integer.MAX_VALUE, new BigDecimal("1e12"), new BigDecimal("1e12")));
+        BigDecimal amount = new BigDecimal("12.34");
+        int operations = 1_000_000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            velocityLimiter.tryAcquire((long) (i % 50_000), CardType.CREDIT, amount, T0 + i);
+        }
+        double nanosPerOperation = (System.nanoTime() - start) / (double) operations;
+
+        log.info("Evaluación de límites de velocidad: {} ns por compra", Math.round(nanosPerOperation));
+        assertTrue(nanosPerOperation < 100_000, "Average " + nanosPerOperation + " ns");
+    }
+
+    private Optional<VelocityLimiter.Violation> acquire(Long cardId, CardType cardType, String amount, long now) {
+        return velocityLimiter.tryAcquire(cardId, cardType, new BigDecimal(amount), now);
+    }
+}
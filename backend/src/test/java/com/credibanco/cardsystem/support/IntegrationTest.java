@@ -0,0 +1,17 @@
+package com.credibanco.cardsystem.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Base de las pruebas de integración: todas declaran la misma configuración, de modo que Spring reutiliza un
+ * único contexto (y una única base H2 migrada por Flyway) para toda la ejecución. Las clases que necesitan
+ * propiedades propias las añaden con {@code @TestPropertySource} y pagan su propio contexto.
+ *
+ * <p>La base es compartida: cada prueba crea sus datos con {@link TestCards} y compara diferencias, nunca
+ * totales absolutos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTest {
+}
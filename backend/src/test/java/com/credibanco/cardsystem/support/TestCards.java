@@ -0,0 +1,26 @@
+package com.credibanco.cardsystem.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secuencia determinista para PAN, documentos y referencias de prueba. Es única para toda la JVM, así que dos
+ * clases que comparten contexto y base nunca generan el mismo PAN aunque usen el mismo prefijo.
+ */
+public final class TestCards {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestCards() {
+    }
+
+    public static long next() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * PAN de 16 dígitos: el prefijo de la clase seguido del número de secuencia.
+     */
+    public static String pan(String prefix, long sequence) {
+        return prefix + String.format("%0" + (16 - prefix.length()) + "d", sequence);
+    }
+}
@@ -0,0 +1,52 @@
+package com.credibanco.cardsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private final PanHasher hasher = new PanHasher("bloom-filter-test-key");
+
+    @Test
+    void mightContain_NeverMissesAnInsertedHash() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hasher.hash(pan(i)));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(hasher.hash(pan(i))));
+        }
+    }
+
+    @Test
+    void mightContain_FalsePositivesStayNearConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hasher.hash(pan(i)));
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 10_000; i < 10_000 + probes; i++) {
+            if (filter.mightContain(hasher.hash(pan(i)))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes * 0.02, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void panHasher_IsKeyedAndDeterministic() {
+        String hash = hasher.hash("4111111111111111");
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, new PanHasher("bloom-filter-test-key").hash("4111111111111111"));
+        assertNotEquals(hash, new PanHasher("another-key").hash("4111111111111111"));
+    }
+
+    private static String pan(int i) {
+        return String.format("4%015d", i);
+    }
+}
@@ -2,6 +2,10 @@ package com.credibanco.cardsystem.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CardUtilsTest {
@@ -52,6 +56,42 @@ class CardUtilsTest {
         assertEquals(identifier1, identifier2);
     }
 
+    @Test
+    void generateIdentifier_MatchesReferenceImplementation() throws Exception {
+        String[][] inputs = {
+                {"1234567890123456", "12345678"},
+                {"4111111111111111", "CC-1032456789"},
+                {"5555555555554444", "Pérez-ñ-文字"},
+                {"4000000000000002", "\uD83D\uDCB3"},
+                {"4000000000000010", ""},
+                {null, "12345678"},
+                {"4000000000000028", "a".repeat(200)}
+        };
+
+        for (String[] input : inputs) {
+            assertEquals(referenceIdentifier(input[0], input[1]), CardUtils.generateIdentifier(input[0], input[1]));
+        }
+    }
+
+    @Test
+    void generateIdentifiers_MatchesSingleGeneration() {
+        List<String> pans = List.of("1234567890123456", "4111111111111111", "5555555555554444");
+        List<String> documents = List.of("12345678", "87654321", "Nº 44");
+
+        List<String> identifiers = CardUtils.generateIdentifiers(pans, documents);
+
+        assertEquals(3, identifiers.size());
+        for (int i = 0; i < pans.size(); i++) {
+            assertEquals(CardUtils.generateIdentifier(pans.get(i), documents.get(i)), identifiers.get(i));
+        }
+    }
+
+    @Test
+    void generateIdentifiers_MismatchedSizes_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CardUtils.generateIdentifiers(List.of("1234567890123456"), List.of()));
+    }
+
     @Test
     void generateValidationNumber_ReturnsValidFormat() {
         String validationNumber = CardUtils.generateValidationNumber();
@@ -69,4 +109,20 @@ class CardUtilsTest {
         assertTrue(referenceNumber.startsWith("TXN"));
         assertTrue(referenceNumber.length() > 3);
     }
+
+    // Implementación original, usada como referencia de compatibilidad
+    private static String referenceIdentifier(String pan, String documentNumber) throws Exception {
+        String data = pan + documentNumber;
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString().substring(0, 32);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.credibanco.cardsystem.util;
+
+import com.credibanco.cardsystem.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecode_RoundTrip_ReturnsSamePosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 10, 30, 8, 15, 30, 123456000);
+
+        PageCursor decoded = PageCursor.decode(new PageCursor(createdAt, 42L).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void encode_ReturnsUrlSafeToken() {
+        String token = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_InvalidToken_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
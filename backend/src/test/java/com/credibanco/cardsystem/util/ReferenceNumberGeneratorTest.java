@@ -0,0 +1,91 @@
+package com.credibanco.cardsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceNumberGeneratorTest {
+
+    @Test
+    void next_ReturnsFixedWidthReference() {
+        String reference = new ReferenceNumberGenerator(7).next();
+
+        assertEquals(ReferenceNumberGenerator.LENGTH, reference.length());
+        assertTrue(reference.matches("TXN\\d{19}"));
+    }
+
+    @Test
+    void next_ConcurrentThreadsOnSeveralNodes_NeverCollide() throws Exception {
+        int threads = 32;
+        int perThread = 50_000;
+        ReferenceNumberGenerator[] nodes = {
+                new ReferenceNumberGenerator(1), new ReferenceNumberGenerator(2)
+        };
+        Set<String> references = ConcurrentHashMap.newKeySet(threads * perThread * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                ReferenceNumberGenerator generator = nodes[t % nodes.length];
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(references.add(generator.next()), "Duplicate reference number");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, references.size());
+    }
+
+    @Test
+    void nextId_ClockMovesBackwards_StaysMonotonic() {
+        AtomicLong clock = new AtomicLong(ReferenceNumberGenerator.EPOCH + 10_000);
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(3, clock::get);
+
+        long previous = generator.nextId();
+        clock.addAndGet(-5_000);
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_SequenceExhaustedWithinMillisecond_StaysMonotonic() {
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(4, () -> ReferenceNumberGenerator.EPOCH + 1);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 3 * 4096; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void constructor_InvalidNodeId_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceNumberGenerator(1024));
+    }
+}
@@ -0,0 +1,41 @@
+-- DDL que generaba ddl-auto=update con las entidades de la versión inicial (H2Dialect), tal cual
+
+    create table audit_logs (
+        created_at timestamp(6) not null,
+        id bigint generated by default as identity,
+        action varchar(255) not null,
+        description varchar(255),
+        entity varchar(255) not null,
+        entity_identifier varchar(255) not null,
+        primary key (id)
+    );
+
+    create table cards (
+        validation_number varchar(6),
+        created_at timestamp(6) not null,
+        id bigint generated by default as identity,
+        pan varchar(16) not null,
+        document_number varchar(255) not null,
+        holder_name varchar(255) not null,
+        identifier varchar(255) not null unique,
+        phone_number varchar(255),
+        card_type enum ('CREDIT','DEBIT') not null,
+        status enum ('CREATED','ENROLLED','INACTIVE') not null,
+        primary key (id)
+    );
+
+    create table transactions (
+        total_amount numeric(10,2) not null,
+        card_id bigint not null,
+        created_at timestamp(6) not null,
+        id bigint generated by default as identity,
+        purchase_address varchar(255) not null,
+        reference_number varchar(255) not null unique,
+        status enum ('APPROVED','CANCELLED','REJECTED') not null,
+        primary key (id)
+    );
+
+    alter table if exists transactions
+       add constraint FKjxdscq0bxpy0pl465vvsqc89j
+       foreign key (card_id)
+       references cards;